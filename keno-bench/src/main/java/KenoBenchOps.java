@@ -0,0 +1,91 @@
+import javafx.application.Platform;
+import keno.bench.KenoOps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The default-package side of keno.bench.KenoOps, with direct access to the game
+ * classes. Each benchmark thread gets its own instance.
+ */
+public class KenoBenchOps implements KenoOps {
+    private static final int BOARD_DRAWS = 16;
+
+    private final KenoGame kenoGame = new KenoGame(Paytable.STANDARD, new XoshiroDrawRandom());
+    private final DrawGenerator drawGenerator = new DrawGenerator(new XoshiroDrawRandom());
+    private final int[] drawBuffer = new int[KenoBits.DRAW_SIZE];
+    private List<Integer> selectedNumbers;
+    private BetCardGrid betCardGrid;
+    // draws cycled through by updateButtons, so every call refreshes the board to a new draw
+    private final List<List<Integer>> boardDraws = new ArrayList<>();
+    private int boardDraw;
+
+    @Override
+    public void setUp(int spots, boolean withGrid) {
+        kenoGame.setNumSpots(spots);
+        selectedNumbers = new ArrayList<>();
+        for (int number = 1; number <= spots; number++) {
+            selectedNumbers.add(number * 7 % KenoBits.MAX_NUMBER + 1);
+        }
+        kenoGame.playDrawing(selectedNumbers);
+
+        if (withGrid) {
+            startToolkit();
+            betCardGrid = new BetCardGrid(8, 10);
+            betCardGrid.setMaxSpots(spots);
+            for (int number : selectedNumbers) {
+                betCardGrid.getBetButton(number).fire();
+            }
+            for (int i = 0; i < BOARD_DRAWS; i++) {
+                boardDraws.add(drawGenerator.nextDraw().toList());
+            }
+        }
+    }
+
+    @Override
+    public int drawNumbers() {
+        drawGenerator.draw(drawBuffer, 0);
+        return drawBuffer[0];
+    }
+
+    @Override
+    public int gameDrawNumbers() {
+        kenoGame.drawNumbers();
+        return kenoGame.getDrawnNumbers().get(0);
+    }
+
+    @Override
+    public int calculateMatchedNumbers() {
+        return kenoGame.calculateMatchedNumbers(selectedNumbers);
+    }
+
+    @Override
+    public int calculateWinnings(int matches) {
+        return kenoGame.calculateWinnings(matches);
+    }
+
+    @Override
+    public int playDrawing() {
+        return kenoGame.playDrawing(selectedNumbers);
+    }
+
+    @Override
+    public int getSelectedNumbers() {
+        return betCardGrid.getSelectedNumbers().size();
+    }
+
+    @Override
+    public void updateButtons() {
+        betCardGrid.updateButtons(boardDraws.get(boardDraw), selectedNumbers);
+        boardDraw = (boardDraw + 1) % BOARD_DRAWS;
+    }
+
+    // BetButton is a control, so the JavaFX toolkit has to be running before a grid is built
+    private static void startToolkit() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException alreadyStarted) {
+            // started by an earlier trial in this JVM
+        }
+    }
+}
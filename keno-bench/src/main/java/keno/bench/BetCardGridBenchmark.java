@@ -0,0 +1,50 @@
+package keno.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the BetCardGrid paths run on every click and every draw. The grid
+ * is never shown, so the nodes can be used off the FX thread, but the JavaFX toolkit must be able
+ * to start (a display, or -Dglass.platform=Monocle -Dmonocle.platform=Headless).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BetCardGridBenchmark {
+
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private KenoOps ops;
+
+    @Setup
+    public void setUp() {
+        ops = KenoOps.create();
+        ops.setUp(spots, true);
+    }
+
+    @Benchmark
+    public int getSelectedNumbers() {
+        return ops.getSelectedNumbers();
+    }
+
+    @Benchmark
+    public void updateButtons() {
+        ops.updateButtons();
+    }
+}
@@ -0,0 +1,68 @@
+package keno.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the KenoGame hot paths: drawing, matching, payout lookup and a
+ * full playDrawing, for every spot count the paytable pays on. drawNumbers measures the raw
+ * DrawGenerator draw and gameDrawNumbers the KenoGame path with its allocations; compare them
+ * with -prof gc.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"1", "4", "8", "10"})
+    public int spots;
+
+    private KenoOps ops;
+    private int matches;
+
+    @Setup
+    public void setUp() {
+        ops = KenoOps.create();
+        ops.setUp(spots, false);
+        matches = spots / 2;
+    }
+
+    @Benchmark
+    public int drawNumbers() {
+        return ops.drawNumbers();
+    }
+
+    @Benchmark
+    public int gameDrawNumbers() {
+        return ops.gameDrawNumbers();
+    }
+
+    @Benchmark
+    public int calculateMatchedNumbers() {
+        return ops.calculateMatchedNumbers();
+    }
+
+    @Benchmark
+    public int calculateWinnings() {
+        return ops.calculateWinnings(matches);
+    }
+
+    @Benchmark
+    public int playDrawing() {
+        return ops.playDrawing();
+    }
+}
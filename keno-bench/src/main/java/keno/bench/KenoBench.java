@@ -0,0 +1,30 @@
+package keno.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with the GC profiler attached, so every
+ * result comes with its allocation rate (gc.alloc.rate.norm is bytes per operation).
+ *
+ * Usage: java -jar target/benchmarks.jar [threads,...] [benchmark regex]
+ * e.g.   java -jar target/benchmarks.jar 1,4,8 EngineBenchmark
+ */
+public class KenoBench {
+
+    public static void main(String[] args) throws RunnerException {
+        String threadCounts = args.length > 0 ? args[0] : "1," + Runtime.getRuntime().availableProcessors();
+        String include = args.length > 1 ? args[1] : "keno.bench.*Benchmark";
+
+        for (String threads : threadCounts.split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .addProfiler(GCProfiler.class);
+            new Runner(options.build()).run();
+        }
+    }
+}
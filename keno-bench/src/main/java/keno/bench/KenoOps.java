@@ -0,0 +1,47 @@
+package keno.bench;
+
+/**
+ * The operations the benchmarks measure. The game classes live in the default
+ * package, which JMH benchmarks (and any named package) cannot import, so the benchmarks call
+ * them through this interface. The implementation is KenoBenchOps in the default package,
+ * loaded by name. The interface has a single implementation, so its calls inline.
+ */
+public interface KenoOps {
+
+    /**
+     * Prepares a game and a bet card with the given number of spots selected.
+     * @param spots the number of spots on the ticket.
+     * @param withGrid whether to build a BetCardGrid; requires the JavaFX toolkit.
+     */
+    void setUp(int spots, boolean withGrid);
+
+    // the draw that KenoGame.drawNumbers performs, into a reused buffer
+    int drawNumbers();
+
+    // KenoGame.drawNumbers itself, including the Draw and drawn-numbers list it builds
+    int gameDrawNumbers();
+
+    // KenoGame.calculateMatchedNumbers against the last draw
+    int calculateMatchedNumbers();
+
+    // KenoGame.calculateWinnings for the given number of matches
+    int calculateWinnings(int matches);
+
+    // KenoGame.playDrawing with the selected numbers
+    int playDrawing();
+
+    // BetCardGrid.getSelectedNumbers
+    int getSelectedNumbers();
+
+    // BetCardGrid.updateButtons with the next of a cycle of draws and the selected numbers
+    void updateButtons();
+
+    // create the default-package implementation
+    static KenoOps create() {
+        try {
+            return (KenoOps) Class.forName("KenoBenchOps").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("KenoBenchOps is missing from the benchmark jar", e);
+        }
+    }
+}
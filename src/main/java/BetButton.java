@@ -1,9 +1,11 @@
 import javafx.animation.ScaleTransition;
+import javafx.scene.CacheHint;
 import javafx.scene.control.Button;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
@@ -51,8 +53,9 @@ DRAWN: Light gray color with black text.
 CORRECT: Green color with white text.
 INCORRECT: Red color with white text.
  *
- * Use getNumber() to get the number displayed on the button.
+ * Use getNumber() to get the number displayed on the button, and setNumber() to rebind it.
  * Use getState() to get the current state of the button.
+ * Use setOnStateChange() to be told whenever the state changes.
  *
  */
 public class BetButton extends Button {
@@ -61,7 +64,29 @@ public class BetButton extends Button {
     private Circle         circle;
     private Text           text;
     private StackPane      stack;
-    private RadialGradient neutralGradient, selectedGradient, drawnGradient;
+    private StateListener  stateListener;
+
+    // Shared by every button: paints, fonts and effects are immutable or never changed after
+    // creation, so one instance of each serves the whole board
+    private static final RadialGradient NEUTRAL_GRADIENT = new RadialGradient(
+            0, 0, 0.5, 0.5, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, Color.web("#cccccc")),
+            new Stop(1, Color.web("#aaaaaa"))
+    );
+    private static final RadialGradient SELECTED_GRADIENT = new RadialGradient(
+            0, 0, 0.5, 0.5, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, Color.web("#2f6dff")),
+            new Stop(1, Color.web("#0d47a1"))
+    );
+    private static final RadialGradient DRAWN_GRADIENT = new RadialGradient(
+            0, 0, 0.5, 0.5, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, Color.web("#eeeeee")),
+            new Stop(1, Color.web("#cccccc"))
+    );
+    private static final Color  CORRECT_COLOR   = Color.web("#4caf50");
+    private static final Color  INCORRECT_COLOR = Color.web("#f44336");
+    private static final Font   NUMBER_FONT     = new Font(14);
+    private static final DropShadow DROP_SHADOW = createDropShadow();
 
     public
     BetButton (int number) { // Constructor
@@ -69,35 +94,14 @@ public class BetButton extends Button {
         this.number = number; // Set the number of the button
         this.state = ButtonState.UNSELECTED; // Set the state of the button to unselected
 
-        // Create the gradients for the buttons
-        neutralGradient = new RadialGradient(
-                0, 0, 0.5, 0.5, 1, true, javafx.scene.paint.CycleMethod.NO_CYCLE,
-                new Stop(0, Color.web("#cccccc")),
-                new Stop(1, Color.web("#aaaaaa"))
-        );
-        selectedGradient = new RadialGradient(
-                0, 0, 0.5, 0.5, 1, true, javafx.scene.paint.CycleMethod.NO_CYCLE,
-                new Stop(0, Color.web("#2f6dff")),
-                new Stop(1, Color.web("#0d47a1"))
-        );
-        drawnGradient = new RadialGradient(
-                0, 0, 0.5, 0.5, 1, true, javafx.scene.paint.CycleMethod.NO_CYCLE,
-                new Stop(0, Color.web("#eeeeee")),
-                new Stop(1, Color.web("#cccccc"))
-        );
-
         circle = new Circle(20); // Create a circle with a radius of 20
-        circle.setFill(neutralGradient); // Set the color of the circle to neutral
-
-        DropShadow dropShadow = new DropShadow(); // Create a drop shadow effect
-        dropShadow.setRadius(10); // Set the radius of the drop shadow
-        dropShadow.setOffsetX(2); // Set the offset of the drop shadow
-        dropShadow.setOffsetY(2); // Set the offset of the drop shadow
-        dropShadow.setColor(Color.rgb(50, 50, 50, 0.7)); // Set the color of the drop shadow
-        circle.setEffect(dropShadow); // Set the effect of the circle to the drop shadow
+        circle.setFill(NEUTRAL_GRADIENT); // Set the color of the circle to neutral
+        circle.setEffect(DROP_SHADOW); // Set the effect of the circle to the shared drop shadow
+        circle.setCache(true); // Rasterise the circle and its shadow once instead of on every frame
+        circle.setCacheHint(CacheHint.SCALE); // Keep the cached bitmap while the click animation scales it
 
         text = new Text(Integer.toString(number)); // Create a text object with the number of the button
-        text.setFont(new Font(14)); // Set the font of the text
+        text.setFont(NUMBER_FONT); // Set the font of the text
         text.setFill(Color.BLACK); // Set the color of the text
 
         stack = new StackPane(circle, text); // Create a stack pane with the circle and the text
@@ -109,6 +113,17 @@ public class BetButton extends Button {
 
     }
 
+    // create the drop shadow shared by all buttons
+    private static
+    DropShadow createDropShadow () {
+        DropShadow dropShadow = new DropShadow(); // Create a drop shadow effect
+        dropShadow.setRadius(10); // Set the radius of the drop shadow
+        dropShadow.setOffsetX(2); // Set the offset of the drop shadow
+        dropShadow.setOffsetY(2); // Set the offset of the drop shadow
+        dropShadow.setColor(Color.rgb(50, 50, 50, 0.7)); // Set the color of the drop shadow
+        return dropShadow;
+    }
+
     // mouse click event handler
     private
     void onMouseClicked (MouseEvent event) {
@@ -127,34 +142,33 @@ public class BetButton extends Button {
     public
     void toggleSelection () {
         if (state == ButtonState.UNSELECTED) {
-            state = ButtonState.SELECTED;
+            setState(ButtonState.SELECTED);
         } else if (state == ButtonState.SELECTED) {
-            state = ButtonState.UNSELECTED;
+            setState(ButtonState.UNSELECTED);
         }
-        updateAppearance();
     }
     // set the state of the button
     private
     void updateAppearance () {
         switch (state) {
             case UNSELECTED:
-                circle.setFill(neutralGradient);
+                circle.setFill(NEUTRAL_GRADIENT);
                 text.setFill(Color.BLACK);
                 break;
             case SELECTED:
-                circle.setFill(selectedGradient);
+                circle.setFill(SELECTED_GRADIENT);
                 text.setFill(Color.WHITE);
                 break;
             case DRAWN:
-                circle.setFill(drawnGradient);
+                circle.setFill(DRAWN_GRADIENT);
                 text.setFill(Color.BLACK);
                 break;
             case CORRECT:
-                circle.setFill(Color.web("#4caf50"));
+                circle.setFill(CORRECT_COLOR);
                 text.setFill(Color.WHITE);
                 break;
             case INCORRECT:
-                circle.setFill(Color.web("#f44336"));
+                circle.setFill(INCORRECT_COLOR);
                 text.setFill(Color.WHITE);
                 break;
         }
@@ -166,6 +180,15 @@ public class BetButton extends Button {
         return number;
     }
 
+    // rebind the button to another number, so a pooled button can be reused instead of creating a new one
+    public
+    void setNumber (int number) {
+        if (this.number != number) {
+            this.number = number;
+            text.setText(Integer.toString(number));
+        }
+    }
+
     // get the state of the button
     public
     ButtonState getState () {
@@ -179,8 +202,24 @@ public class BetButton extends Button {
     // set the state of the button manually
     public
     void setState (ButtonState state) {
+        ButtonState oldState = this.state;
         this.state = state;
         updateAppearance();
+        if (stateListener != null && oldState != state) {
+            stateListener.stateChanged(this, oldState, state);
+        }
+    }
+
+    // set the listener told about every change of state, e.g. the grid keeping track of the selection
+    public
+    void setOnStateChange (StateListener stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    // called when the state of a button changes
+    public
+    interface StateListener {
+        void stateChanged (BetButton button, ButtonState oldState, ButtonState newState);
     }
 
     // the possible states of the button
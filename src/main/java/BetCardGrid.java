@@ -1,7 +1,7 @@
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.layout.GridPane;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -34,13 +34,29 @@ import java.util.List;
  * primaryStage.setTitle("BetCardGrid Example");
  * primaryStage.show();
  *
+ * The grid keeps its buttons in an array indexed by number, and the selection as a bitset
+ * (number n is bit n - 1) with a running count. Every button tells the grid when its state
+ * changes, so looking up a button, checking the max spots and exporting the selection never
+ * walk the grid's children.
+ *
  */
 class BetCardGrid extends GridPane {
 
     private int maxSpots;
     private int numDraws;
+    private final BetButton[] buttons;
+    private final long[] selected;
+    private final long[] marked;
+    private final long[] drawnScratch;
+    private final long[] chosenScratch;
+    private int selectedCount;
 
     public BetCardGrid(int rows, int columns) {
+        buttons = new BetButton[rows * columns + 1];
+        selected = new long[(rows * columns + 63) / 64];
+        marked = new long[selected.length];
+        drawnScratch = new long[selected.length];
+        chosenScratch = new long[selected.length];
         setHgap(12);
         setVgap(12);
         setAlignment(Pos.CENTER);
@@ -50,6 +66,7 @@ class BetCardGrid extends GridPane {
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < columns; j++) {
                 BetButton betButton = createBetButton(number);
+                buttons[number] = betButton;
                 add(betButton, j, i);
                 number++;
             }
@@ -59,13 +76,14 @@ class BetCardGrid extends GridPane {
     // Create a BetButton instance and set its action handler
     private BetButton createBetButton(int number) {
         BetButton betButton = new BetButton(number);
+        betButton.setOnStateChange(this::onStateChange);
 
         betButton.setOnAction(event -> {
             BetButton.ButtonState currentState = betButton.getState();
 
             // If the button is unselected and the number of selected buttons is less than the maximum number of spots,
             // then select the button. Otherwise, deselect the button.
-            if (currentState == BetButton.ButtonState.UNSELECTED && getSelectedNumbers().size() < maxSpots) {
+            if (currentState == BetButton.ButtonState.UNSELECTED && selectedCount < maxSpots) {
                 betButton.setState(BetButton.ButtonState.SELECTED);
             } else if (currentState == BetButton.ButtonState.SELECTED) {
                 betButton.setState(BetButton.ButtonState.UNSELECTED);
@@ -75,18 +93,26 @@ class BetCardGrid extends GridPane {
         return betButton;
     }
 
+    // Keep the bitsets of selected and non-neutral buttons and the selection count in step with the buttons
+    private void onStateChange(BetButton button, BetButton.ButtonState oldState, BetButton.ButtonState newState) {
+        int bit = button.getNumber() - 1;
+        if (newState == BetButton.ButtonState.UNSELECTED) {
+            marked[bit >>> 6] &= ~(1L << bit);
+        } else {
+            marked[bit >>> 6] |= 1L << bit;
+        }
+        if (newState == BetButton.ButtonState.SELECTED) {
+            selected[bit >>> 6] |= 1L << bit;
+            selectedCount++;
+        } else if (oldState == BetButton.ButtonState.SELECTED) {
+            selected[bit >>> 6] &= ~(1L << bit);
+            selectedCount--;
+        }
+    }
+
     // Get the BetButton instance with the specified number
     public BetButton getBetButton(int number) {
-        // Iterate through all the nodes in the grid and return the BetButton with the specified number
-        for (Node node : getChildren()) {
-            if (node instanceof BetButton) {
-                BetButton betButton = (BetButton) node;
-                if (betButton.getNumber() == number) {
-                    return betButton;
-                }
-            }
-        }
-        return null;
+        return number >= 1 && number < buttons.length ? buttons[number] : null;
     }
 
     // Get the numbers of all the selected buttons
@@ -102,60 +128,98 @@ class BetCardGrid extends GridPane {
 
     // Get the numbers of all the selected buttons
     public void resetButtons() {
-        // Iterate through all the nodes in the grid and reset the state of each button
-        for (Node node : getChildren()) {
-            if (node instanceof BetButton) {
-                BetButton betButton = (BetButton) node;
-                betButton.setState(BetButton.ButtonState.UNSELECTED);
+        // Only the buttons that are not already unselected need resetting
+        for (int word = 0; word < marked.length; word++) {
+            for (long bits = marked[word]; bits != 0; bits &= bits - 1) {
+                buttons[word * 64 + Long.numberOfTrailingZeros(bits) + 1].setState(BetButton.ButtonState.UNSELECTED);
             }
         }
     }
 
     // Update the state of each button based on the numbers that were drawn and the numbers that were selected
     public void updateButtons(List<Integer> drawnNumbers, List<Integer> selectedNumbers) {
-        // Iterate through all the nodes in the grid and update the state of each button
-        for (Node node : getChildren()) {
-            if (node instanceof BetButton) {
-                BetButton betButton = (BetButton) node;
-                int number = betButton.getNumber();
-
-                if (drawnNumbers.contains(number) && selectedNumbers.contains(number)) {
-                    betButton.setState(BetButton.ButtonState.CORRECT);
-                } else if (drawnNumbers.contains(number) && !selectedNumbers.contains(number)) {
-                    betButton.setState(BetButton.ButtonState.DRAWN);
-                } else if (selectedNumbers.contains(number) && !drawnNumbers.contains(number)) {
-                    betButton.setState(BetButton.ButtonState.INCORRECT);
+        updateButtons(toBits(drawnNumbers, drawnScratch), toBits(selectedNumbers, chosenScratch));
+    }
+
+    /**
+     * Updates the board after a draw, touching only the buttons whose state changes. A button
+     * can only change if it was drawn, selected, or is currently not UNSELECTED, so only those
+     * are looked at.
+     * @param drawn the drawn numbers, number n as bit n - 1.
+     * @param chosen the selected numbers, in the same encoding.
+     * @throws IllegalArgumentException if either array is not one word per 64 numbers on the grid.
+     */
+    public void updateButtons(long[] drawn, long[] chosen) {
+        if (drawn.length != marked.length || chosen.length != marked.length) {
+            throw new IllegalArgumentException("Expected " + marked.length + " words per bitset, got "
+                    + drawn.length + " and " + chosen.length);
+        }
+        for (int word = 0; word < marked.length; word++) {
+            long drawnWord = drawn[word];
+            long chosenWord = chosen[word];
+            for (long bits = drawnWord | chosenWord | marked[word]; bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                boolean isDrawn = (drawnWord & (1L << bit)) != 0;
+                boolean isChosen = (chosenWord & (1L << bit)) != 0;
+
+                BetButton.ButtonState target;
+                if (isDrawn && isChosen) {
+                    target = BetButton.ButtonState.CORRECT;
+                } else if (isDrawn) {
+                    target = BetButton.ButtonState.DRAWN;
+                } else if (isChosen) {
+                    target = BetButton.ButtonState.INCORRECT;
                 } else {
-                    betButton.setState(BetButton.ButtonState.UNSELECTED);
+                    target = BetButton.ButtonState.UNSELECTED;
                 }
+
+                BetButton betButton = buttons[word * 64 + bit + 1];
+                if (betButton.getState() != target) {
+                    betButton.setState(target);
+                }
+            }
+        }
+    }
+
+    // Encode a list of numbers in the grid's bitset layout, reusing the given array
+    private long[] toBits(List<Integer> numbers, long[] bits) {
+        Arrays.fill(bits, 0);
+        for (int number : numbers) {
+            if (number >= 1 && number < buttons.length) {
+                bits[(number - 1) >>> 6] |= 1L << (number - 1);
             }
         }
+        return bits;
     }
 
     // Enable or disable all the buttons in the grid
     public void enableButtons(boolean enable) {
-        // Iterate through all the nodes in the grid and enable or disable each button
-        for (Node node : getChildren()) {
-            if (node instanceof BetButton) {
-                BetButton betButton = (BetButton) node;
-                betButton.setDisable(!enable);
-            }
+        for (int number = 1; number < buttons.length; number++) {
+            buttons[number].setDisable(!enable);
         }
     }
 
-    // Get the numbers of all the selected buttons
+    // Get the numbers of all the selected buttons, in increasing order
     public List<Integer> getSelectedNumbers() {
-        List<Integer> selectedNumbers = new ArrayList<>();
-        // Iterate through all the nodes in the grid and add the number of each selected button to the list
-        for (Node node : getChildren()) {
-            if (node instanceof BetButton) {
-                BetButton betButton = (BetButton) node;
-                if (betButton.getState() == BetButton.ButtonState.SELECTED) {
-                    selectedNumbers.add(betButton.getNumber());
-                }
+        List<Integer> selectedNumbers = new ArrayList<>(selectedCount);
+        // Walk the set bits of the selection
+        for (int word = 0; word < selected.length; word++) {
+            for (long bits = selected[word]; bits != 0; bits &= bits - 1) {
+                selectedNumbers.add(word * 64 + Long.numberOfTrailingZeros(bits) + 1);
             }
         }
         return selectedNumbers;
     }
 
+    // Get the number of selected buttons
+    public int getSelectedCount() {
+        return selectedCount;
+    }
+
+    // Check whether the button with the specified number is selected
+    public boolean isSelected(int number) {
+        int bit = number - 1;
+        return bit >= 0 && bit < buttons.length - 1 && (selected[bit >>> 6] & (1L << bit)) != 0;
+    }
+
 }
\ No newline at end of file
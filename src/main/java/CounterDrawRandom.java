@@ -0,0 +1,52 @@
+/**
+ * A counter-based DrawRandomSource: the stream for a draw is a pure function of the
+ * master seed and the draw id. position(drawId) jumps straight to that draw's stream in O(1), so
+ * any draw can be regenerated without replaying the ones before it. The generator is SplitMix64,
+ * started from a key that mixes the seed with the draw id.
+ *
+ * split() derives a new master seed from this one and a count of the splits made so far, so each
+ * child, and each child's draws, differ from this source's and from its siblings'. A child's
+ * draws can be regenerated from its getMasterSeed().
+ */
+public class CounterDrawRandom implements DrawRandomSource {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long masterSeed;
+    private long state;
+    private long splits;
+
+    /**
+     * @param masterSeed the seed every draw's stream is derived from.
+     */
+    public CounterDrawRandom(long masterSeed) {
+        this.masterSeed = masterSeed;
+        position(0);
+    }
+
+    // move to the start of the given draw's stream
+    public void position(long drawId) {
+        state = XoshiroDrawRandom.splitMix64(masterSeed ^ XoshiroDrawRandom.splitMix64(drawId * GOLDEN_GAMMA + GOLDEN_GAMMA));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return XoshiroDrawRandom.splitMix64(state);
+    }
+
+    // a stream under a seed mixed from this one and the split count
+    @Override
+    public DrawRandomSource split() {
+        splits++;
+        return new CounterDrawRandom(XoshiroDrawRandom.splitMix64(masterSeed ^ XoshiroDrawRandom.splitMix64(~splits * GOLDEN_GAMMA)));
+    }
+
+    @Override
+    public byte provenance() {
+        return PROVENANCE_SEEDED;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+}
@@ -0,0 +1,82 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable Keno draw. The 20 drawn numbers are kept twice: as a 128-bit set
+ * (two longs, see KenoBits) for constant-time match counting, and as a byte array in draw order
+ * for display and audit. Nothing in the match path boxes or scans.
+ */
+public final class Draw {
+    private final long lo;
+    private final long hi;
+    private final byte[] order;
+
+    /**
+     * Creates a draw from the 20 numbers in the order they were drawn.
+     * @param numbers the drawn numbers, each in 1..80 and without duplicates.
+     */
+    public Draw(int[] numbers) {
+        if (numbers.length != KenoBits.DRAW_SIZE) {
+            throw new IllegalArgumentException("A draw has " + KenoBits.DRAW_SIZE + " numbers, got " + numbers.length);
+        }
+        long lo = 0;
+        long hi = 0;
+        byte[] order = new byte[KenoBits.DRAW_SIZE];
+        for (int i = 0; i < numbers.length; i++) {
+            int number = numbers[i];
+            KenoBits.checkNumber(number);
+            if (KenoBits.contains(lo, hi, number)) {
+                throw new IllegalArgumentException("Duplicate drawn number: " + number);
+            }
+            lo |= KenoBits.lowBit(number);
+            hi |= KenoBits.highBit(number);
+            order[i] = (byte) number;
+        }
+        this.lo = lo;
+        this.hi = hi;
+        this.order = order;
+    }
+
+    /**
+     * Calculates the number of ticket numbers that were drawn.
+     * @param ticket the ticket to score.
+     * @return the number of matches.
+     */
+    public int matches(Ticket ticket) {
+        return KenoBits.matches(lo, hi, ticket.getLow(), ticket.getHigh());
+    }
+
+    // check whether a number was drawn
+    public boolean contains(int number) {
+        return number >= KenoBits.MIN_NUMBER && number <= KenoBits.MAX_NUMBER && KenoBits.contains(lo, hi, number);
+    }
+
+    // get the i-th number in draw order
+    public int numberAt(int index) {
+        return order[index];
+    }
+
+    // get the numbers in draw order as a new list, for the UI
+    public List<Integer> toList() {
+        List<Integer> numbers = new ArrayList<>(order.length);
+        for (byte number : order) {
+            numbers.add((int) number);
+        }
+        return numbers;
+    }
+
+    /**
+     * Getters
+     */
+    public long getLow() {
+        return lo;
+    }
+
+    public long getHigh() {
+        return hi;
+    }
+
+    public int size() {
+        return order.length;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Draws 20 of the numbers 1..80 without allocating. The generator keeps a primitive
+ * pool of all 80 numbers and runs a partial Fisher-Yates shuffle over it, swapping only the 20
+ * positions a draw needs. The pool is never reset: any permutation of 1..80 is an equally good
+ * starting point for the next partial shuffle, so each draw is still uniform.
+ *
+ * A generator is not thread-safe; give each thread its own, with its own DrawRandomSource
+ * (see DrawRandomStreams).
+ */
+public class DrawGenerator {
+    private final int[] pool = new int[KenoBits.MAX_NUMBER];
+    private final DrawRandomSource random;
+
+    /**
+     * Constructor for DrawGenerator
+     */
+    public DrawGenerator() {
+        this(new SplittableDrawRandom());
+    }
+
+    /**
+     * @param random the random stream this generator draws from.
+     */
+    public DrawGenerator(DrawRandomSource random) {
+        this.random = random;
+        reset();
+    }
+
+    // put the pool back in 1..80 order, so the next draw depends only on the random stream
+    public void reset() {
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = i + 1;
+        }
+    }
+
+    /**
+     * Draws 20 numbers and writes them, in draw order, into the caller's buffer.
+     * @param out a buffer with room for 20 numbers starting at offset.
+     * @param offset the index of the first number to write.
+     */
+    public void draw(int[] out, int offset) {
+        shuffle();
+        System.arraycopy(pool, 0, out, offset, KenoBits.DRAW_SIZE);
+    }
+
+    /**
+     * Draws 20 numbers and writes them as a bitset (see KenoBits) into the caller's buffer.
+     * @param out a buffer with room for two longs starting at offset: low word, then high word.
+     * @param offset the index of the low word.
+     */
+    public void drawBits(long[] out, int offset) {
+        shuffle();
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+            lo |= KenoBits.lowBit(pool[i]);
+            hi |= KenoBits.highBit(pool[i]);
+        }
+        out[offset] = lo;
+        out[offset + 1] = hi;
+    }
+
+    /**
+     * Draws count games back to back into one contiguous buffer of packed bitsets.
+     * @param count the number of draws.
+     * @param out receives draw i as the two longs out[2 * i] (low word) and out[2 * i + 1] (high word).
+     */
+    public void drawBatch(int count, long[] out) {
+        drawBatch(count, out, null);
+    }
+
+    /**
+     * Draws count games back to back into one contiguous buffer of packed bitsets, and
+     * optionally the numbers of each draw in draw order.
+     * @param count the number of draws.
+     * @param out receives draw i as the two longs out[2 * i] (low word) and out[2 * i + 1] (high word).
+     * @param order if not null, receives draw i in draw order at order[20 * i .. 20 * i + 19].
+     */
+    public void drawBatch(int count, long[] out, byte[] order) {
+        if (out.length < 2 * count || (order != null && order.length < KenoBits.DRAW_SIZE * count)) {
+            throw new IllegalArgumentException("Buffer too small for " + count + " draws");
+        }
+        for (int draw = 0; draw < count; draw++) {
+            shuffle();
+            long lo = 0;
+            long hi = 0;
+            for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+                lo |= KenoBits.lowBit(pool[i]);
+                hi |= KenoBits.highBit(pool[i]);
+            }
+            out[2 * draw] = lo;
+            out[2 * draw + 1] = hi;
+            if (order != null) {
+                int base = KenoBits.DRAW_SIZE * draw;
+                for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+                    order[base + i] = (byte) pool[i];
+                }
+            }
+        }
+    }
+
+    // draw a new immutable Draw; allocates the result, nothing else
+    public Draw nextDraw() {
+        int[] numbers = new int[KenoBits.DRAW_SIZE];
+        draw(numbers, 0);
+        return new Draw(numbers);
+    }
+
+    // partial Fisher-Yates: afterwards pool[0..19] holds the draw
+    private void shuffle() {
+        for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+            int j = i + random.nextInt(pool.length - i);
+            int number = pool[j];
+            pool[j] = pool[i];
+            pool[i] = number;
+        }
+    }
+}
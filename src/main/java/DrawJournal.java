@@ -0,0 +1,196 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An append-only audit journal of every draw, for replay and disputes. Records are a
+ * fixed 64 bytes, written with absolute puts into a memory-mapped segment file, so appending a draw
+ * allocates nothing and makes no system call. When a segment fills up the journal rolls over to the
+ * next one (draws-0000000000000000001.journal, ...).
+ *
+ * Record layout (big-endian):
+ *  0  long  draw id
+ *  8  long  timestamp, epoch milliseconds
+ * 16  36 bytes  the draw in KenoCodec format: bitset low and high words, then numbers in draw order
+ * 52  byte  RNG provenance (DrawRandomSource.PROVENANCE_*)
+ * 60  int   commit marker, written last
+ *
+ * Writes to the mapping reach the OS page cache immediately, so a JVM crash loses nothing; flush()
+ * forces the segment to disk for power loss. A record is only valid once its commit marker is set,
+ * so a record torn by a crash is recognised and skipped, and the journal resumes after the last
+ * complete record when it is reopened.
+ *
+ * Draw ids in a journal are strictly increasing: append() refuses an id that is not after the last
+ * one, and getLastDrawId() tells a reopened journal's writer where to resume. append() synchronizes
+ * on the journal itself, so a writer that allocates ids can hold the journal's lock across
+ * allocating an id and appending it, keeping journal order and id order the same.
+ */
+public class DrawJournal implements Closeable {
+    static final int RECORD_SIZE = 64;
+    private static final int DRAW_OFFSET = 16;
+    private static final int PROVENANCE_OFFSET = 52;
+    private static final int COMMIT_OFFSET = 60;
+    private static final int COMMIT_MARKER = 0x4B454E4F; // "KENO"
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private long lastDrawId;
+
+    /**
+     * Opens a journal in the given directory, resuming after the last complete record.
+     * @param directory the directory holding the segment files, created if missing.
+     * @param recordsPerSegment the number of records per segment file.
+     */
+    public DrawJournal(Path directory, int recordsPerSegment) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            openSegment(segmentIndex(segments.get(segments.size() - 1)));
+            while (position < segment.capacity() && segment.getInt(position + COMMIT_OFFSET) == COMMIT_MARKER) {
+                position += RECORD_SIZE;
+            }
+            // the last segment can be empty if a crash followed a roll-over, so look back for the last record
+            for (int i = segments.size() - 1; i >= 0 && lastDrawId == 0; i--) {
+                lastDrawId = lastDrawId(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Appends a draw to the journal.
+     * @param drawId the id of the draw.
+     * @param timestamp when the draw was made, epoch milliseconds.
+     * @param draw the drawn numbers.
+     * @param provenance the DrawRandomSource provenance code of the generator that drew it.
+     * @throws IllegalArgumentException if drawId is not after the last draw id in the journal.
+     */
+    public synchronized void append(long drawId, long timestamp, Draw draw, byte provenance) throws IOException {
+        if (drawId <= lastDrawId) {
+            throw new IllegalArgumentException("Draw " + drawId + " is not after the last journaled draw " + lastDrawId);
+        }
+        if (position == segment.capacity()) {
+            segment.force();
+            channel.close();
+            openSegment(segmentIndex + 1);
+        }
+        MappedByteBuffer buffer = segment;
+        int base = position;
+        buffer.putLong(base, drawId);
+        buffer.putLong(base + 8, timestamp);
+        KenoCodec.encodeDraw(draw, buffer, base + DRAW_OFFSET);
+        buffer.put(base + PROVENANCE_OFFSET, provenance);
+        buffer.putInt(base + COMMIT_OFFSET, COMMIT_MARKER);
+        position += RECORD_SIZE;
+        lastDrawId = drawId;
+    }
+
+    // the id of the last draw in the journal, 0 if it is empty
+    public synchronized long getLastDrawId() {
+        return lastDrawId;
+    }
+
+    // force everything appended so far to disk
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void openSegment(long index) throws IOException {
+        segmentIndex = index;
+        channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        position = 0;
+    }
+
+    /**
+     * Called for every complete record when reading a journal.
+     */
+    public interface RecordVisitor {
+        void visit(long drawId, long timestamp, Draw draw, byte provenance);
+    }
+
+    /**
+     * Reads every complete record in a journal directory, in order.
+     * @param directory the journal directory.
+     * @param visitor called for each record.
+     * @return the number of records read.
+     */
+    public static long read(Path directory, RecordVisitor visitor) throws IOException {
+        long count = 0;
+        for (Path path : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int base = 0; base + RECORD_SIZE <= buffer.capacity(); base += RECORD_SIZE) {
+                    if (buffer.getInt(base + COMMIT_OFFSET) != COMMIT_MARKER) {
+                        break;
+                    }
+                    Draw draw = KenoCodec.decodeDraw(buffer, base + DRAW_OFFSET);
+                    visitor.visit(buffer.getLong(base), buffer.getLong(base + 8), draw, buffer.get(base + PROVENANCE_OFFSET));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // the id of the last complete record in a segment, 0 if it has none
+    private static long lastDrawId(Path path) throws IOException {
+        long drawId = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int base = 0; base + RECORD_SIZE <= buffer.capacity(); base += RECORD_SIZE) {
+                if (buffer.getInt(base + COMMIT_OFFSET) != COMMIT_MARKER) {
+                    break;
+                }
+                drawId = buffer.getLong(base);
+            }
+        }
+        return drawId;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "draws-*.journal")) {
+                for (Path file : files) {
+                    segments.add(file);
+                }
+            }
+        }
+        // the index is zero-padded, so name order is segment order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("draws-%019d.journal", index));
+    }
+
+    private static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("draws-".length(), name.length() - ".journal".length()));
+    }
+}
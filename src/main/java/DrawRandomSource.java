@@ -0,0 +1,55 @@
+/**
+ * The source of randomness behind a draw. Implementations are not thread-safe;
+ * instead, each worker thread takes its own stream with split(), and the streams returned by
+ * split() never overlap the stream they came from. DrawRandomStreams hands out one per thread.
+ *
+ * Implementations:
+ * SplittableDrawRandom: java.util.SplittableRandom, the default.
+ * XoshiroDrawRandom: xoshiro256**, seedable and jumpable by 2^128 steps.
+ * SecureDrawRandom: SecureRandom read in bulk blocks, for certified draws.
+ * CounterDrawRandom: addressed by draw id, for deterministic draws (see SeededDraws).
+ */
+public interface DrawRandomSource {
+    // provenance codes recorded with every journaled draw
+    byte PROVENANCE_UNKNOWN = 0;
+    byte PROVENANCE_SPLITTABLE = 1;
+    byte PROVENANCE_XOSHIRO = 2;
+    byte PROVENANCE_SECURE = 3;
+    byte PROVENANCE_SEEDED = 4;
+
+    /**
+     * @return the next 64 random bits.
+     */
+    long nextLong();
+
+    /**
+     * Returns a uniformly distributed int in [0, bound) using Lemire's multiply-and-shift
+     * method, which only needs a division on the rare rejected sample.
+     * @param bound the exclusive upper bound, must be positive.
+     * @return the random int.
+     */
+    default int nextInt(int bound) {
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * @return a new, independent stream for another thread.
+     */
+    DrawRandomSource split();
+
+    /**
+     * @return which kind of generator this is, one of the PROVENANCE codes.
+     */
+    default byte provenance() {
+        return PROVENANCE_UNKNOWN;
+    }
+}
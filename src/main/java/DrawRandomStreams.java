@@ -0,0 +1,30 @@
+/**
+ * Hands every thread its own DrawRandomSource, split off a shared root the first
+ * time the thread asks. After that a thread only touches its own stream, so parallel draws never
+ * contend on shared random state.
+ *
+ * Usage:
+ * DrawRandomStreams streams = new DrawRandomStreams(new XoshiroDrawRandom(seed));
+ * DrawGenerator generator = new DrawGenerator(streams.current());
+ */
+public class DrawRandomStreams {
+    private final DrawRandomSource root;
+    private final ThreadLocal<DrawRandomSource> streams = ThreadLocal.withInitial(this::newStream);
+
+    /**
+     * @param root the stream every per-thread stream is split from.
+     */
+    public DrawRandomStreams(DrawRandomSource root) {
+        this.root = root;
+    }
+
+    // get the calling thread's stream
+    public DrawRandomSource current() {
+        return streams.get();
+    }
+
+    // split a new independent stream off the root
+    public synchronized DrawRandomSource newStream() {
+        return root.split();
+    }
+}
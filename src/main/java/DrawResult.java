@@ -0,0 +1,58 @@
+/**
+ * The immutable outcome of playing one ticket on one draw: which draw it was, the
+ * ticket, the matches and the payout. Results are safe to hand between threads and to keep as
+ * history, unlike the mutable drawnNumbers list of KenoGame.
+ */
+public final class DrawResult {
+    private final long drawId;
+    private final Draw draw;
+    private final Ticket ticket;
+    private final long wager;
+    private final int matches;
+    private final long payout;
+
+    /**
+     * Constructor for DrawResult
+     * @param drawId the id of the draw.
+     * @param draw the drawn numbers.
+     * @param ticket the ticket played.
+     * @param wager the amount wagered, in cents.
+     * @param matches the number of ticket numbers drawn.
+     * @param payout the amount won, in cents.
+     */
+    public DrawResult(long drawId, Draw draw, Ticket ticket, long wager, int matches, long payout) {
+        this.drawId = drawId;
+        this.draw = draw;
+        this.ticket = ticket;
+        this.wager = wager;
+        this.matches = matches;
+        this.payout = payout;
+    }
+
+    /**
+     * Getters
+     */
+    public long getDrawId() {
+        return drawId;
+    }
+
+    public Draw getDraw() {
+        return draw;
+    }
+
+    public Ticket getTicket() {
+        return ticket;
+    }
+
+    public long getWager() {
+        return wager;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+
+    public long getPayout() {
+        return payout;
+    }
+}
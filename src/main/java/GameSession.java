@@ -0,0 +1,70 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One player's game state on the shared KenoEngine. Everything a session keeps is
+ * either immutable (its id, the last DrawResult) or updated atomically (its counters), so tickets
+ * from the same player may be settled on several threads at once without a lock. Amounts are in
+ * cents and updated with Money.addAtomically, which fails rather than overflows.
+ */
+public class GameSession {
+    private final long id;
+    private final AtomicLong draws = new AtomicLong();
+    private final AtomicLong totalWagered = new AtomicLong();
+    private final AtomicLong totalWinnings = new AtomicLong();
+    private final AtomicLong balance = new AtomicLong();
+    private volatile DrawResult lastResult;
+
+    GameSession(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Plays a ticket on a new draw and records the result.
+     * @param engine the engine to draw on.
+     * @param ticket the ticket.
+     * @param wager the amount wagered, in cents.
+     * @return the result of the draw.
+     */
+    public DrawResult play(KenoEngine engine, Ticket ticket, long wager) {
+        return record(engine.play(ticket, wager));
+    }
+
+    // record a result settled elsewhere
+    DrawResult record(DrawResult result) {
+        draws.incrementAndGet();
+        Money.addAtomically(totalWagered, result.getWager());
+        Money.addAtomically(totalWinnings, result.getPayout());
+        Money.addAtomically(balance, result.getPayout() - result.getWager());
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * Getters
+     */
+    public long getId() {
+        return id;
+    }
+
+    public long getDraws() {
+        return draws.get();
+    }
+
+    public long getTotalWagered() {
+        return totalWagered.get();
+    }
+
+    public long getTotalWinnings() {
+        return totalWinnings.get();
+    }
+
+    // the net result of the session so far: winnings minus wagers, in cents
+    public long getBalance() {
+        return balance.get();
+    }
+
+    // the most recent result, or null before the first draw
+    public DrawResult getLastResult() {
+        return lastResult;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The house totals across all sessions, in cents. Every settlement adds to these
+ * from whichever thread settled it, so the amounts are striped like a LongAdder: a settlement adds
+ * to a randomly picked cell, and the cells are only summed when a total is read, instead of every
+ * settlement fighting over one contended counter. Unlike a LongAdder, every cell is updated and
+ * summed with Money's exact arithmetic, so an overflowing total fails with an ArithmeticException
+ * instead of wrapping. A record that fails leaves the ledger as it was. Each cell pair sits on its
+ * own cache line.
+ */
+public class HouseLedger {
+    private static final int PAD = 8; // longs per cache line
+    private static final int WAGERED = 0;
+    private static final int PAID_OUT = 1;
+
+    private final int mask;
+    private final AtomicLongArray cells;
+    private final LongAdder tickets = new LongAdder();
+
+    /**
+     * Constructor for HouseLedger
+     */
+    public HouseLedger() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+    }
+
+    /**
+     * Constructor for HouseLedger with a given number of cells; package-private for the tests.
+     * @param count the number of cells, a power of two.
+     */
+    HouseLedger(int count) {
+        mask = count - 1;
+        cells = new AtomicLongArray(count * PAD);
+    }
+
+    // record one settled ticket
+    public void record(long wager, long payout) {
+        int base = (ThreadLocalRandom.current().nextInt() & mask) * PAD;
+        addExact(base + WAGERED, wager);
+        try {
+            addExact(base + PAID_OUT, payout);
+        } catch (ArithmeticException e) {
+            // take the wager back out so the ticket is recorded whole or not at all
+            cells.getAndAdd(base + WAGERED, -wager);
+            throw e;
+        }
+        tickets.increment();
+    }
+
+    private void addExact(int index, long cents) {
+        while (true) {
+            long current = cells.get(index);
+            if (cells.compareAndSet(index, current, Money.add(current, cents))) {
+                return;
+            }
+        }
+    }
+
+    private long sum(int offset) {
+        long total = 0;
+        for (int base = 0; base < cells.length(); base += PAD) {
+            total = Money.add(total, cells.get(base + offset));
+        }
+        return total;
+    }
+
+    /**
+     * Getters
+     */
+    public long getWagered() {
+        return sum(WAGERED);
+    }
+
+    public long getPaidOut() {
+        return sum(PAID_OUT);
+    }
+
+    public long getTickets() {
+        return tickets.sum();
+    }
+
+    // the house's gross gaming revenue: wagered minus paid out
+    public long getNet() {
+        return Math.subtractExact(getWagered(), getPaidOut());
+    }
+}
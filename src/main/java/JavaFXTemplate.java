@@ -19,6 +19,8 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.StrokeType;
 import javafx.scene.text.FontWeight;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author: Seyfal Sultanov
@@ -247,13 +249,14 @@ class JavaFXTemplate extends Application {
         title.setFont(Font.font("Verdana", FontWeight.BOLD, 24));
         OddsBox.getChildren().add(title);
 
-        // Add odds
-        String[] OddsText = {
-                "1 Spot Game: 1 in 4.00",
-                "4 Spot Game: 1 in 3.86",
-                "8 Spot Game: 1 in 9.77",
-                "10 Spot Game: 1 in 9.05"
-        };
+        // Add odds, computed exactly for every spot count the paytable pays on
+        List<String> OddsText = new ArrayList<>();
+        for (int spots = 1; spots <= Paytable.MAX_SPOTS; spots++) {
+            if (kenoGame.getPaytable().hasRow(spots)) {
+                SpotOdds spotOdds = KenoOdds.forSpots(spots, kenoGame.getPaytable());
+                OddsText.add(String.format("%d Spot Game: 1 in %.2f (return %.1f%%)", spots, spotOdds.getHitOdds(), spotOdds.getRtp() * 100));
+            }
+        }
 
         // Add odds to VBox
         for (String odds : OddsText) {
@@ -0,0 +1,48 @@
+/**
+ * Static helpers for the 128-bit (two long) bitset encoding shared by Draw and Ticket.
+ * Number n (1..80) is stored as bit (n - 1): numbers 1..64 live in the low word and 65..80 in the
+ * high word. Counting matches between two sets is then two popcounts, with no boxing or scanning.
+ */
+final class KenoBits {
+    static final int MIN_NUMBER = 1;
+    static final int MAX_NUMBER = 80;
+    static final int DRAW_SIZE = 20;
+
+    // Bits of the high word that correspond to real numbers (65..80)
+    static final long HIGH_MASK = (1L << (MAX_NUMBER - 64)) - 1;
+
+    private KenoBits() {
+    }
+
+    // the low-word bit for a number, or 0 when it belongs to the high word
+    static long lowBit(int number) {
+        return number <= 64 ? 1L << (number - 1) : 0L;
+    }
+
+    // the high-word bit for a number, or 0 when it belongs to the low word
+    static long highBit(int number) {
+        return number > 64 ? 1L << (number - 65) : 0L;
+    }
+
+    // check whether a number is present in the (lo, hi) set
+    static boolean contains(long lo, long hi, int number) {
+        return number <= 64 ? (lo & (1L << (number - 1))) != 0 : (hi & (1L << (number - 65))) != 0;
+    }
+
+    // count the numbers present in both sets
+    static int matches(long aLo, long aHi, long bLo, long bHi) {
+        return Long.bitCount(aLo & bLo) + Long.bitCount(aHi & bHi);
+    }
+
+    // count the numbers in a set
+    static int count(long lo, long hi) {
+        return Long.bitCount(lo) + Long.bitCount(hi);
+    }
+
+    // check that a number is on the 1..80 board
+    static void checkNumber(int number) {
+        if (number < MIN_NUMBER || number > MAX_NUMBER) {
+            throw new IllegalArgumentException("Number out of range 1.." + MAX_NUMBER + ": " + number);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The compact binary format for draws and tickets, used by the journal, bulk ticket
+ * import and anything else that moves them between processes. Everything is read and written
+ * straight from a ByteBuffer (big-endian), without intermediate objects.
+ *
+ * A stream starts with a header: the int MAGIC followed by a VERSION byte.
+ *
+ * Draw, 36 bytes:    long low word, long high word (see KenoBits), 20 bytes of numbers in draw order
+ * Ticket, 27 bytes:  long low word, long high word, byte spots, short draws, long wager in cents
+ *
+ * A draw's bitset words and its numbers are stored side by side, so decoding checks one against
+ * the other and refuses a record where they disagree.
+ *
+ * The same draw as text ("3,17,42,..." with twenty numbers) takes around 60 bytes and has to
+ * be parsed; here matching a ticket to a decoded draw is two loads and two popcounts.
+ */
+public final class KenoCodec {
+    public static final int MAGIC = 0x4B4E4F43; // "KNOC"
+    public static final byte VERSION = 1;
+    public static final int HEADER_BYTES = 5;
+    public static final int DRAW_BYTES = 16 + KenoBits.DRAW_SIZE;
+    public static final int TICKET_BYTES = 16 + 1 + 2 + 8;
+
+    private KenoCodec() {
+    }
+
+    // write the stream header
+    public static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+    }
+
+    /**
+     * Reads and checks the stream header.
+     * @return the version of the stream.
+     * @throws IllegalArgumentException if the stream is not in this format or is a newer version.
+     */
+    public static int readHeader(ByteBuffer buffer) {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalArgumentException("Not a Keno stream, magic " + Integer.toHexString(magic));
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported Keno stream version " + version);
+        }
+        return version;
+    }
+
+    // write a draw at the buffer's position
+    public static void encodeDraw(Draw draw, ByteBuffer buffer) {
+        encodeDraw(draw, buffer, buffer.position());
+        buffer.position(buffer.position() + DRAW_BYTES);
+    }
+
+    // write a draw at an absolute index, leaving the buffer's position alone
+    public static void encodeDraw(Draw draw, ByteBuffer buffer, int index) {
+        buffer.putLong(index, draw.getLow());
+        buffer.putLong(index + 8, draw.getHigh());
+        for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+            buffer.put(index + 16 + i, (byte) draw.numberAt(i));
+        }
+    }
+
+    // read a draw at the buffer's position
+    public static Draw decodeDraw(ByteBuffer buffer) {
+        Draw draw = decodeDraw(buffer, buffer.position());
+        buffer.position(buffer.position() + DRAW_BYTES);
+        return draw;
+    }
+
+    /**
+     * Reads a draw at an absolute index, leaving the buffer's position alone.
+     * @throws IllegalArgumentException if the stored words do not match the stored numbers.
+     */
+    public static Draw decodeDraw(ByteBuffer buffer, int index) {
+        checkDraw(buffer, index);
+        int[] numbers = new int[KenoBits.DRAW_SIZE];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = buffer.get(index + 16 + i);
+        }
+        return new Draw(numbers);
+    }
+
+    /**
+     * Reads a draw at the buffer's position into primitive buffers, allocating nothing.
+     * @param bits receives the low and high words at offset and offset + 1.
+     * @param order if not null, receives the 20 numbers in draw order from orderOffset.
+     * @throws IllegalArgumentException if the stored words do not match the stored numbers.
+     */
+    public static void decodeDraw(ByteBuffer buffer, long[] bits, int offset, byte[] order, int orderOffset) {
+        checkDraw(buffer, buffer.position());
+        bits[offset] = buffer.getLong();
+        bits[offset + 1] = buffer.getLong();
+        if (order != null) {
+            buffer.get(order, orderOffset, KenoBits.DRAW_SIZE);
+        } else {
+            buffer.position(buffer.position() + KenoBits.DRAW_SIZE);
+        }
+    }
+
+    /**
+     * Writes a ticket at the buffer's position.
+     * @throws IllegalArgumentException if spots does not fit in a byte or draws in a short.
+     */
+    public static void encodeTicket(long low, long high, int spots, int draws, long wager, ByteBuffer buffer) {
+        if (spots < 0 || spots > 0xFF) {
+            throw new IllegalArgumentException("Spots " + spots + " do not fit in a ticket record");
+        }
+        if (draws < 0 || draws > 0xFFFF) {
+            throw new IllegalArgumentException("Draws " + draws + " do not fit in a ticket record");
+        }
+        buffer.putLong(low);
+        buffer.putLong(high);
+        buffer.put((byte) spots);
+        buffer.putShort((short) draws);
+        buffer.putLong(wager);
+    }
+
+    // write ticket index of a batch at the buffer's position
+    public static void encodeTicket(TicketBatch batch, int index, ByteBuffer buffer) {
+        encodeTicket(batch.getLow(index), batch.getHigh(index), batch.getSpots(index), batch.getDraws(index), batch.getWager(index), buffer);
+    }
+
+    /**
+     * Reads a ticket at the buffer's position and appends it to a batch, allocating nothing
+     * unless the batch has to grow. The ticket is not validated; see TicketValidator.
+     * @return the index of the ticket in the batch.
+     */
+    public static int decodeTicket(ByteBuffer buffer, TicketBatch batch) {
+        long low = buffer.getLong();
+        long high = buffer.getLong();
+        int spots = buffer.get() & 0xFF;
+        int draws = buffer.getShort() & 0xFFFF;
+        long wager = buffer.getLong();
+        return batch.add(low, high, spots, draws, wager);
+    }
+
+    /**
+     * Reads a ticket at the buffer's position and appends it to a batch if the validator accepts
+     * it, so a malformed record is skipped rather than thrown on. The buffer moves past the
+     * ticket either way.
+     * @return the validator's error code; the ticket was added only if it is TicketValidator.OK.
+     */
+    public static byte decodeTicket(ByteBuffer buffer, TicketBatch batch, TicketValidator validator) {
+        long low = buffer.getLong();
+        long high = buffer.getLong();
+        int spots = buffer.get() & 0xFF;
+        int draws = buffer.getShort() & 0xFFFF;
+        long wager = buffer.getLong();
+        byte error = validator.validate(low, high, spots, draws, wager);
+        if (error == TicketValidator.OK) {
+            batch.add(low, high, spots, draws, wager);
+        }
+        return error;
+    }
+
+    // check that a draw record's numbers are twenty distinct numbers in 1..80 that match its words
+    private static void checkDraw(ByteBuffer buffer, int index) {
+        long low = 0;
+        long high = 0;
+        for (int i = 0; i < KenoBits.DRAW_SIZE; i++) {
+            int number = buffer.get(index + 16 + i);
+            if (number < 1 || number > KenoBits.MAX_NUMBER) {
+                throw new IllegalArgumentException("Corrupt draw record: number " + number);
+            }
+            if (number <= 64) {
+                low |= 1L << (number - 1);
+            } else {
+                high |= 1L << (number - 65);
+            }
+        }
+        if (low != buffer.getLong(index) || high != buffer.getLong(index + 8) || KenoBits.count(low, high) != KenoBits.DRAW_SIZE) {
+            throw new IllegalArgumentException("Corrupt draw record: numbers do not match the stored words");
+        }
+    }
+}
@@ -23,7 +23,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 // JavaFX node imports
-import javafx.scene.Node;
 
 // JavaFX utility imports
 import javafx.util.Duration;
@@ -71,6 +70,10 @@ import java.util.ArrayList;
  *    and resets the grid. When the number of selected draws changes, the listener can be used to perform
  *    additional actions if necessary.
  *
+ * @6 With the Turbo button on, Play starts continuous play instead of an animated drawing. Games are played
+ *    and settled immediately on each animation pulse, and only the last draw and cumulative winnings are
+ *    rendered, once per pulse, until Play (now Stop) is pressed again.
+ *
  * @Summary In summary, the KenoController class serves as a bridge between the user interface and the game's logic.
  * It manages the UI components and interacts with the KenoGame and BetCardGrid classes to control the game's
  * flow and state.
@@ -102,6 +105,9 @@ public class KenoController {
     // Create an HBox to hold the numbers drawn during the game
     HBox numberBox = new HBox();
 
+    // The balls shown in the numberBox, created once and rebound to the drawn numbers of every draw
+    private final BetButton[] drawnBalls = new BetButton[KenoBits.DRAW_SIZE];
+
     CustomButton resetButton = new CustomButton("Reset");
 
     // Create an "Auto" button for the automatic selection of numbers
@@ -110,8 +116,27 @@ public class KenoController {
     // Create a "Play" button for starting the game
     Button playButton = new CustomButton("Play");
 
+    // Create a "Turbo" button for switching fast play on and off
+    Button turboButton = new CustomButton("Turbo");
+
+    // In turbo mode the Play button starts and stops continuous play without the drawing animation
+    private boolean turbo = false;
+    private boolean turboRunning = false;
+    private Ticket turboTicket;
+    private long turboGames = 0;
+    // the last draw and the turbo ticket as bitsets for the bet card, reused every pulse
+    private final long[] turboDrawn = new long[2];
+    private final long[] turboChosen = new long[2];
+
+    // Turbo games are played on the animation pulse: as many as fit in this budget, then one UI update
+    private static final long TURBO_FRAME_BUDGET_NANOS = 4_000_000;
+    private AnimationTimer turboTimer;
+
     // Declare a variable to store the winnings from the current game
-    int gameWinnings = 0;
+    long gameWinnings = 0;
+
+    // The paytable shown in the winnings column, taken from the KenoGame
+    private Paytable paytable = Paytable.STANDARD;
 
 
     /**
@@ -129,6 +154,8 @@ public class KenoController {
      * @param kenoGame The KenoGame object used for game logic.
      */
     public void initializeKenoUI(BorderPane root, KenoGame kenoGame) {
+        paytable = kenoGame.getPaytable();
+
         // Create the bet card grid
         betCardGrid = new BetCardGrid(8, 10);
 
@@ -153,6 +180,13 @@ public class KenoController {
         numberBox.setPadding(new Insets(10));
         numberBox.setStyle("-fx-background-color: white; -fx-border-color: #333; -fx-border-width: 2px;");
 
+        // Create the pool of drawn balls
+        for (int i = 0; i < drawnBalls.length; i++) {
+            drawnBalls[i] = new BetButton(i + 1);
+            drawnBalls[i].setPrefSize(42, 10);
+            drawnBalls[i].setAlignment(Pos.CENTER);
+        }
+
         // Create and configure the main layout
         VBox mainLayout = new VBox(30);
         mainLayout.getChildren().addAll(topLayout, numberBox, buttonLayout, playButton);
@@ -306,7 +340,7 @@ public class KenoController {
         autoPlayBox.setAlignment(Pos.CENTER);
 
         // Add the auto and play buttons to the auto-play box
-        autoPlayBox.getChildren().addAll(autoButton, resetButton);
+        autoPlayBox.getChildren().addAll(autoButton, resetButton, turboButton);
 
         // Create an empty VBox above the buttons and set its vertical grow priority
         VBox emptyBoxAboveButtons = new VBox();
@@ -343,22 +377,35 @@ public class KenoController {
             // Get the sublist containing the first 'numSpots' elements
             List<Integer> randomSpots = numbers.subList(0, numSpots);
 
-            // Iterate through the children of the bet card grid
-            for (Node node : betCardGrid.getChildren()) {
-                // Check if the current node is an instance of BetButton
-                if (node instanceof BetButton) {
-                    // Cast the node to a BetButton
-                    BetButton betButton = (BetButton) node;
-
-                    // Get the number of the current bet button
-                    int buttonNumber = betButton.getNumber();
+            // Fire the bet button of each random spot
+            for (int number : randomSpots) {
+                betCardGrid.getBetButton(number).fire();
+            }
+        });
 
-                    // Check if the button number is in the random spots list
-                    if (randomSpots.contains(buttonNumber)) {
-                        // Fire the bet button if its number is in the random spots list
-                        betButton.fire();
-                    }
-                }
+        // The 'turboButton' switches turbo mode on and off. In turbo mode, pressing Play plays games
+        // back to back with the selected numbers, spots and draws until Play is pressed again. Draws are
+        // computed and settled immediately, and only the last draw and the cumulative winnings are shown.
+        turboTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                playTurboGames(kenoGame);
+            }
+        };
+        turboButton.setOnAction(actionEvent -> {
+            if (turboRunning) {
+                stopTurbo();
+            }
+            if (!playButton.getText().equals("Play")) {
+                Alert alert = new Alert(Alert.AlertType.ERROR, "Cannot change turbo mode during the game!", ButtonType.OK);
+                alert.showAndWait();
+                return;
+            }
+            turbo = !turbo;
+            if (turbo) {
+                turboButton.setStyle("-fx-background-color: red; -fx-text-fill: #fff;");
+            } else {
+                turboButton.setStyle("-fx-base: #2980b9; -fx-text-fill: white; -fx-background-radius: 5;");
             }
         });
 
@@ -384,6 +431,13 @@ public class KenoController {
         // continue with the next draw. Otherwise, the game is reset and an informational alert
         // displays the user's game winnings.
         playButton.setOnAction(event -> {
+            // A running turbo session is stopped before any checks: the bet card shows the last
+            // draw while turbo runs, so the selection count is not the player's selection then.
+            if (turboRunning) {
+                stopTurbo();
+                return;
+            }
+
             // Check if the user has selected the number of spots to play.
             if (kenoGame.getNumSpots() == 0) {
                 Alert alert = new Alert(Alert.AlertType.ERROR, "You need to choose the number of spots you want to play!", ButtonType.OK);
@@ -392,7 +446,7 @@ public class KenoController {
             }
 
             // Check if the user has selected the correct number of numbers.
-            if (betCardGrid.getSelectedNumbers().size() != kenoGame.getNumSpots()) {
+            if (betCardGrid.getSelectedCount() != kenoGame.getNumSpots()) {
                 Alert alert = new Alert(Alert.AlertType.ERROR, "You need to select " + kenoGame.getNumSpots() + " numbers before you can play!", ButtonType.OK);
                 alert.showAndWait();
                 return;
@@ -405,12 +459,18 @@ public class KenoController {
                 return;
             }
 
+            // In turbo mode, start continuous play instead of animating a drawing.
+            if (turbo) {
+                startTurbo();
+                return;
+            }
+
             // Disable playButton and autoButton during the drawing process.
             playButton.setDisable(true);
             autoButton.setDisable(true);
             resetButton.setDisable(true);
 
-            // Clear the numberBox for a new drawing.
+            // Clear the numberBox for a new drawing; the balls themselves are kept for reuse.
             numberBox.getChildren().clear();
 
             // Get the user's selected numbers and play the drawing.
@@ -432,10 +492,10 @@ public class KenoController {
             // Add drawn numbers to the timeline as keyframes.
             for (int i = 0; i < kenoGame.getDrawnNumbers().size(); i++) {
                 int number = kenoGame.getDrawnNumbers().get(i);
+                BetButton numberLabel = drawnBalls[i];
                 KeyFrame keyFrame = new KeyFrame(Duration.seconds(i), event1 -> {
-                    BetButton numberLabel = new BetButton(number);
-                    numberLabel.setPrefSize(42, 10);
-                    numberLabel.setAlignment(Pos.CENTER);
+                    // Rebind a pooled ball to the drawn number
+                    numberLabel.setNumber(number);
 
                     // Set the label state based on whether the number was selected by the user.
                     if (selectedNumbers.contains(number)) {
@@ -453,8 +513,9 @@ public class KenoController {
                 playButton.setDisable(false);
                 autoButton.setDisable(false);
                 resetButton.setDisable(false);
-                gameWinnings += kenoGame.calculateWinnings(matchedNumbers);
-                kenoGame.setTotalWinnings(kenoGame.getTotalWinnings() + kenoGame.calculateWinnings(matchedNumbers));
+                int winnings = kenoGame.calculateWinnings(matchedNumbers);
+                gameWinnings = Money.add(gameWinnings, winnings);
+                kenoGame.addWinnings(winnings);
                 gameWinningsBlock.setText("Game: $" + gameWinnings);
                 totalWinningsBlock.setText("Total: $" + kenoGame.getTotalWinnings());
             });
@@ -483,6 +544,78 @@ public class KenoController {
         return autoPlayBox;
     }
 
+    // start playing turbo games with the current selection
+    private void startTurbo() {
+        turboTicket = Ticket.of(betCardGrid.getSelectedNumbers());
+        turboChosen[0] = turboTicket.getLow();
+        turboChosen[1] = turboTicket.getHigh();
+        turboGames = 0;
+        turboRunning = true;
+        playButton.setText("Stop");
+        autoButton.setDisable(true);
+        resetButton.setDisable(true);
+        betCardGrid.enableButtons(false);
+
+        // Show the pooled balls; each pulse only rebinds them
+        numberBox.getChildren().setAll(drawnBalls);
+        turboTimer.start();
+    }
+
+    // stop playing turbo games
+    private void stopTurbo() {
+        turboTimer.stop();
+        turboRunning = false;
+        playButton.setText("Play");
+        autoButton.setDisable(false);
+        resetButton.setDisable(false);
+        betCardGrid.enableButtons(true);
+
+        // The bet card shows the last draw; put the ticket back as the selection for the next game
+        betCardGrid.resetButtons();
+        for (int number = KenoBits.MIN_NUMBER; number <= KenoBits.MAX_NUMBER; number++) {
+            if (turboTicket.contains(number)) {
+                betCardGrid.getBetButton(number).setState(BetButton.ButtonState.SELECTED);
+            }
+        }
+    }
+
+    /**
+     * Plays turbo games for one animation pulse. Games are played back to back for up to
+     * TURBO_FRAME_BUDGET_NANOS, each game being the selected number of draws settled immediately.
+     * Games are drawn as bitsets only, and the Draw is built once for the final board. The UI is
+     * then updated once with the last draw and the cumulative winnings, so however many games are
+     * played there is at most one UI update per pulse.
+     *
+     * @param kenoGame The KenoGame object used for game logic.
+     */
+    private void playTurboGames(KenoGame kenoGame) {
+        long deadline = System.nanoTime() + TURBO_FRAME_BUDGET_NANOS;
+        int numDraws = kenoGame.getNumDraws();
+        do {
+            long winnings = 0;
+            for (int i = 0; i < numDraws; i++) {
+                winnings = Money.add(winnings, kenoGame.calculateWinnings(kenoGame.playQuickDrawing(turboTicket)));
+            }
+            kenoGame.addWinnings(winnings);
+            gameWinnings = winnings;
+            turboGames++;
+        } while (System.nanoTime() < deadline);
+
+        // Render the final board of the last draw on the pooled balls and the bet card
+        Draw draw = kenoGame.getDraw();
+        turboDrawn[0] = draw.getLow();
+        turboDrawn[1] = draw.getHigh();
+        betCardGrid.updateButtons(turboDrawn, turboChosen);
+        for (int i = 0; i < drawnBalls.length; i++) {
+            int number = draw.numberAt(i);
+            drawnBalls[i].setNumber(number);
+            drawnBalls[i].setState(turboTicket.contains(number) ? BetButton.ButtonState.CORRECT : BetButton.ButtonState.INCORRECT);
+        }
+        gameWinningsBlock.setText("Game: $" + gameWinnings);
+        totalWinningsBlock.setText("Total: $" + kenoGame.getTotalWinnings());
+        playButton.setText("Stop (" + turboGames + ")");
+    }
+
     /**
      * @author:  Seyfal Sultanov
      * @author:  Mykola Turchak
@@ -595,52 +728,24 @@ public class KenoController {
      * @param numSpots The number of spots selected by the player.
      */
     private void updateWinningsColumn(int numSpots) {
-        // Define the matrix of winnings for different numbers of spots
-        int[][] winningsMatrix = {
-                {0, 2},
-                {0, 0, 1, 5, 75},
-                {0, 0, 0, 0, 2, 12, 50, 750, 10000},
-                {5, 0, 0, 0, 0, 2, 15, 40, 450, 4250, 100000}
-        };
-        int[] spotsIndex = {1, 4, 8, 10};
-
-        // Find the index of the winnings for the selected number of spots
-        int index = -1;
-        for (int i = 0; i < spotsIndex.length; i++) {
-            if (spotsIndex[i] == numSpots) {
-                index = i;
-                break;
-            }
+        // Clear the spots and winnings labels
+        for (int i = 1; i < winningsLabels.size(); i++) {
+            spotsLabels.get(i).setText("");
+            winningsLabels.get(i).setText("");
         }
 
-        int winningIndex = 0;
-
-        // Update the winnings column labels according to the selected number of spots
-        if (index >= 0) {
-            int[] winnings = winningsMatrix[index];
-
-            // Clear the spots and winnings labels
-            for (int i = 1; i < winningsLabels.size(); i++) {
-                spotsLabels.get(i).setText("");
-                winningsLabels.get(i).setText("");
-            }
-
-            // Set the spots and winnings labels with the appropriate values
-            for (int i = 1; i < winningsLabels.size(); i++) {
-                if (i < winnings.length) {
-                    // Add the spots label
-                    while (winnings[winningIndex] == 0 && winnings.length - 1 > winningIndex) {
-                        winningIndex++;
-                    }
-                    spotsLabels.get(i).setText(Integer.toString(winningIndex));
-                    winningsLabels.get(i).setText("$" + winnings[winningIndex]);
+        if (numSpots < 1 || numSpots > Paytable.MAX_SPOTS) {
+            return;
+        }
 
-                    if (winnings.length - 1 > winningIndex) {
-                        winningIndex++;
-                    } else {
-                        break;
-                    }
-                }
+        // Set the spots and winnings labels for every paying number of matches
+        int row = 1;
+        for (int matches = 0; matches <= numSpots && row < winningsLabels.size(); matches++) {
+            long prize = paytable.payout(numSpots, matches);
+            if (prize != 0) {
+                spotsLabels.get(row).setText(Integer.toString(matches));
+                winningsLabels.get(row).setText("$" + prize);
+                row++;
             }
         }
     }
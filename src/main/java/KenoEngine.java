@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The thread-safe game engine shared by all sessions. It holds only immutable state
+ * (the paytable) plus a fixed pool of DrawGenerators, each on its own stream split off the root
+ * when the engine is created. A draw checks a generator out of the pool with a single CAS, starting
+ * at a random slot, so threads never block on each other and nothing is split or allocated per
+ * thread; with one virtual thread per request that matters, as every request is a new thread.
+ * Draw ids come from a single atomic counter. If a DrawJournal is given, every draw is appended to
+ * it before it is settled, the counter resumes after the journal's last draw id, and each id is
+ * allocated and appended under the journal's lock, so the journal is always in draw id order.
+ *
+ * An engine created with seeded() draws deterministically: each draw is a function of the master
+ * seed and its draw id (see SeededDraws), so any draw it made can be regenerated later.
+ */
+public class KenoEngine {
+    private final Paytable paytable;
+    private final Slot[] slots;
+    private final AtomicLong nextDrawId;
+    private final DrawJournal journal;
+    private final byte provenance;
+
+    /**
+     * Constructor for KenoEngine
+     * @param paytable the prizes to pay out.
+     * @param random the stream every per-thread stream is split from.
+     */
+    public KenoEngine(Paytable paytable, DrawRandomSource random) {
+        this(paytable, random, null);
+    }
+
+    /**
+     * Constructor for KenoEngine
+     * @param paytable the prizes to pay out.
+     * @param random the stream every per-thread stream is split from.
+     * @param journal the journal every draw is recorded in, or null for none.
+     */
+    public KenoEngine(Paytable paytable, DrawRandomSource random, DrawJournal journal) {
+        this.paytable = paytable;
+        this.journal = journal;
+        this.provenance = random.provenance();
+        this.nextDrawId = new AtomicLong(journal == null ? 1 : journal.getLastDrawId() + 1);
+
+        // a few slots per core keeps the chance of a busy slot low; a power of two makes picking one a mask
+        int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+        this.slots = new Slot[count];
+        for (int i = 0; i < count; i++) {
+            if (random instanceof CounterDrawRandom) {
+                slots[i] = new Slot(null, new SeededDraws(((CounterDrawRandom) random).getMasterSeed()));
+            } else {
+                slots[i] = new Slot(new DrawGenerator(random.split()), null);
+            }
+        }
+    }
+
+    /**
+     * Creates an engine whose draws are reproducible from the master seed and the draw id.
+     * @param paytable the prizes to pay out.
+     * @param masterSeed the seed every draw is derived from.
+     * @param journal the journal every draw is recorded in, or null for none.
+     */
+    public static KenoEngine seeded(Paytable paytable, long masterSeed, DrawJournal journal) {
+        return new KenoEngine(paytable, new CounterDrawRandom(masterSeed), journal);
+    }
+
+    /**
+     * Draws a new game and settles a ticket against it.
+     * @param ticket the ticket, with 1..10 spots.
+     * @param wager the amount wagered, in cents.
+     * @return the result of the draw.
+     */
+    public DrawResult play(Ticket ticket, long wager) {
+        checkTicket(ticket, wager);
+        if (journal == null) {
+            long drawId = nextDrawId.getAndIncrement();
+            return settle(drawId, nextDraw(drawId), ticket, wager);
+        }
+
+        long drawId;
+        Draw draw;
+        synchronized (journal) {
+            drawId = nextDrawId.getAndIncrement();
+            draw = nextDraw(drawId);
+            try {
+                journal.append(drawId, System.currentTimeMillis(), draw, provenance);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal draw " + drawId, e);
+            }
+        }
+        return settle(drawId, draw, ticket, wager);
+    }
+
+    /**
+     * Settles a ticket against an existing draw.
+     * @param drawId the id of the draw.
+     * @param draw the drawn numbers.
+     * @param ticket the ticket, with 1..10 spots.
+     * @param wager the amount wagered, in cents.
+     * @return the result of the draw.
+     */
+    public DrawResult settle(long drawId, Draw draw, Ticket ticket, long wager) {
+        checkTicket(ticket, wager);
+        int matches = draw.matches(ticket);
+        return new DrawResult(drawId, draw, ticket, wager, matches, Money.multiply(paytable.payout(ticket.getSpots(), matches), wager));
+    }
+
+    // draw the game with the given id on a pooled generator
+    private Draw nextDraw(long drawId) {
+        Slot slot = acquire();
+        try {
+            return slot.seeded != null ? slot.seeded.draw(drawId) : slot.generator.nextDraw();
+        } finally {
+            slot.set(false);
+        }
+    }
+
+    // check out a free generator slot, spinning only if every slot is busy
+    private Slot acquire() {
+        int mask = slots.length - 1;
+        int index = ThreadLocalRandom.current().nextInt();
+        while (true) {
+            for (int i = 0; i <= mask; i++) {
+                Slot slot = slots[(index + i) & mask];
+                if (!slot.get() && slot.compareAndSet(false, true)) {
+                    return slot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // a pooled generator, owned by whoever set the flag
+    @SuppressWarnings("serial")
+    private static final class Slot extends AtomicBoolean {
+        final DrawGenerator generator;
+        final SeededDraws seeded;
+
+        Slot(DrawGenerator generator, SeededDraws seeded) {
+            this.generator = generator;
+            this.seeded = seeded;
+        }
+    }
+
+    private static void checkTicket(Ticket ticket, long wager) {
+        if (ticket.getSpots() < 1 || ticket.getSpots() > Paytable.MAX_SPOTS) {
+            throw new IllegalArgumentException("A ticket has 1.." + Paytable.MAX_SPOTS + " spots, got " + ticket.getSpots());
+        }
+        if (wager < 0) {
+            throw new IllegalArgumentException("Negative wager: " + wager);
+        }
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+}
@@ -1,9 +1,5 @@
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * @author: Seyfal Sultanov
@@ -13,17 +9,48 @@ import java.util.stream.IntStream;
  *
  * @description: A class representing a Keno game with functionality to play drawings,
  * calculate winnings, and manage game state.
+ *
+ * A KenoGame is a single player's game and is confined to one thread (the JavaFX thread in the
+ * client). Concurrent players each get a GameSession from a SessionRegistry instead.
  */
 public class KenoGame {
     private int numDrawings;
     private int numSpots;
-    private int totalWinnings;
+    private long totalWinnings; // whole dollars: the client plays $1 tickets
     private List<Integer> drawnNumbers;
+    private long drawnLow;  // drawnNumbers as a bitset, see KenoBits
+    private long drawnHigh;
+    private Draw draw;
+    private boolean quickDraw; // the bitset holds a quick drawing that draw and drawnNumbers do not show yet
+    private final long[] quickBits = new long[2];
+    private final DrawGenerator drawGenerator;
+    private final Paytable paytable;
+    private final TicketSettler settler;
 
     /**
      * Constructor for KenoGame
      */
     public KenoGame() {
+        this(Paytable.STANDARD);
+    }
+
+    /**
+     * Constructor for KenoGame
+     * @param paytable the prizes this game pays out.
+     */
+    public KenoGame(Paytable paytable) {
+        this(paytable, new SplittableDrawRandom());
+    }
+
+    /**
+     * Constructor for KenoGame
+     * @param paytable the prizes this game pays out.
+     * @param random the source of randomness for the draws.
+     */
+    public KenoGame(Paytable paytable, DrawRandomSource random) {
+        this.paytable = paytable;
+        this.settler = new TicketSettler(paytable);
+        this.drawGenerator = new DrawGenerator(random);
         numDrawings = 0;
         numSpots = 0;
         totalWinnings = 0;
@@ -43,12 +70,45 @@ public class KenoGame {
     }
 
     /**
-     * Generates a list of 20 random numbers between 1 and 80 and stores them in the drawnNumbers list.
+     * Makes a new draw and scores a ticket against it.
+     * @return the number of numbers matched.
+     * @param ticket the ticket played.
+     */
+    public int playDrawing(Ticket ticket) {
+        drawNumbers();
+        return calculateMatchedNumbers(ticket);
+    }
+
+    /**
+     * Makes a new draw on DrawGenerator's allocation-free bitset path and scores a ticket against
+     * it, for playing many games back to back. Only the bitset of the draw is kept; getDraw() and
+     * getDrawnNumbers() build the last one, with its numbers in increasing order, when asked.
+     * @return the number of numbers matched.
+     * @param ticket the ticket played.
      */
-    private void drawNumbers() {
-        List<Integer> possibleNumbers = IntStream.rangeClosed(1, 80).boxed().collect(Collectors.toList());
-        Collections.shuffle(possibleNumbers, new Random());
-        drawnNumbers = possibleNumbers.subList(0, 20);
+    public int playQuickDrawing(Ticket ticket) {
+        drawGenerator.drawBits(quickBits, 0);
+        drawnLow = quickBits[0];
+        drawnHigh = quickBits[1];
+        quickDraw = true;
+        return KenoBits.matches(drawnLow, drawnHigh, ticket.getLow(), ticket.getHigh());
+    }
+
+    /**
+     * Draws 20 random numbers between 1 and 80 and stores them in the drawnNumbers list.
+     * Package-private so the benchmarks can measure it on its own.
+     */
+    void drawNumbers() {
+        setDraw(drawGenerator.nextDraw());
+    }
+
+    // make the given draw the current one
+    private void setDraw(Draw draw) {
+        this.draw = draw;
+        quickDraw = false;
+        drawnNumbers = draw.toList();
+        drawnLow = draw.getLow();
+        drawnHigh = draw.getHigh();
     }
 
     /**
@@ -57,51 +117,10 @@ public class KenoGame {
      * @param matchedNumbers the number of numbers matched between the selected numbers and the drawn numbers.
      */
     public int calculateWinnings(int matchedNumbers) {
-        int winnings = 0;
-
-        if (numSpots == 1) {
-            if (matchedNumbers == 1) {
-                winnings += 2;
-            }
-        } else if (numSpots == 4) {
-            if (matchedNumbers == 2) {
-                winnings += 1;
-            } else if (matchedNumbers == 3) {
-                winnings += 5;
-            } else if (matchedNumbers == 4) {
-                winnings += 75;
-            }
-        } else if (numSpots == 8) {
-            if (matchedNumbers == 4) {
-                winnings += 2;
-            } else if (matchedNumbers == 5) {
-                winnings += 12;
-            } else if (matchedNumbers == 6) {
-                winnings += 50;
-            } else if (matchedNumbers == 7) {
-                winnings += 750;
-            } else if (matchedNumbers == 8) {
-                winnings += 10000;
-            }
-        } else if (numSpots == 10) {
-            if (matchedNumbers == 0) {
-                winnings += 5;
-            }else if (matchedNumbers == 5) {
-                winnings += 2;
-            } else if (matchedNumbers == 6) {
-                winnings += 15;
-            } else if (matchedNumbers == 7) {
-                winnings += 40;
-            } else if (matchedNumbers == 8) {
-                winnings += 450;
-            } else if (matchedNumbers == 9) {
-                winnings += 4250;
-            } else if (matchedNumbers == 10) {
-                winnings += 100000;
-            }
+        if (numSpots < 0 || numSpots > Paytable.MAX_SPOTS || matchedNumbers < 0 || matchedNumbers > numSpots) {
+            return 0;
         }
-
-        return winnings;
+        return (int) paytable.payout(numSpots, matchedNumbers);
     }
 
     /**
@@ -110,15 +129,64 @@ public class KenoGame {
      * @param selectedNumbers the list of numbers selected by the player.
      */
     public int calculateMatchedNumbers(List<Integer> selectedNumbers) {
-        int matchedNumbers = 0;
-        for (Integer number : selectedNumbers) {
-            if (drawnNumbers.contains(number)) {
-                matchedNumbers++;
+        long selectedLow = 0;
+        long selectedHigh = 0;
+        for (int i = 0; i < selectedNumbers.size(); i++) {
+            int number = selectedNumbers.get(i);
+            if (number >= KenoBits.MIN_NUMBER && number <= KenoBits.MAX_NUMBER) {
+                selectedLow |= KenoBits.lowBit(number);
+                selectedHigh |= KenoBits.highBit(number);
             }
         }
-        return matchedNumbers;
+        return KenoBits.matches(drawnLow, drawnHigh, selectedLow, selectedHigh);
+    }
+
+    /**
+     * Calculates the number of numbers matched between a ticket and the drawn numbers.
+     * @return the number of numbers matched.
+     * @param ticket the ticket played.
+     */
+    public int calculateMatchedNumbers(Ticket ticket) {
+        return KenoBits.matches(drawnLow, drawnHigh, ticket.getLow(), ticket.getHigh());
+    }
+
+    /**
+     * Settles a batch of tickets against a draw using this game's paytable.
+     * @param draw the draw to settle.
+     * @param batch the tickets played on the draw.
+     * @param result filled with the matches and payout of every ticket in the batch.
+     */
+    public void settle(Draw draw, TicketBatch batch, SettlementResult result) {
+        settler.settle(draw, batch, result);
+    }
+
+    /**
+     * Settles a batch of tickets against a draw using this game's paytable.
+     * @return the matches and payout of every ticket in the batch.
+     * @param draw the draw to settle.
+     * @param batch the tickets played on the draw.
+     */
+    public SettlementResult settle(Draw draw, TicketBatch batch) {
+        SettlementResult result = new SettlementResult(batch.size());
+        settler.settle(draw, batch, result);
+        return result;
     }
 
+    // build the Draw of the last quick drawing from its bitset
+    private void showQuickDraw() {
+        if (!quickDraw) {
+            return;
+        }
+        int[] numbers = new int[KenoBits.DRAW_SIZE];
+        int i = 0;
+        for (long bits = drawnLow; bits != 0; bits &= bits - 1) {
+            numbers[i++] = Long.numberOfTrailingZeros(bits) + 1;
+        }
+        for (long bits = drawnHigh; bits != 0; bits &= bits - 1) {
+            numbers[i++] = Long.numberOfTrailingZeros(bits) + 65;
+        }
+        setDraw(new Draw(numbers));
+    }
 
     /**
      * Getters
@@ -131,19 +199,40 @@ public class KenoGame {
         return numSpots;
     }
 
-    public int getTotalWinnings() {
+    public long getTotalWinnings() {
         return totalWinnings;
     }
 
     public List<Integer> getDrawnNumbers() {
+        showQuickDraw();
         return drawnNumbers;
     }
 
+    public Paytable getPaytable() {
+        return paytable;
+    }
+
+    // the last draw played, or null if the drawn numbers were set by hand or reset
+    public Draw getDraw() {
+        showQuickDraw();
+        return draw;
+    }
+
     /**
      * Setters
      */
     public void setDrawnNumbers(List<Integer> drawnNumbers) {
         this.drawnNumbers = drawnNumbers;
+        this.draw = null;
+        this.quickDraw = false;
+        drawnLow = 0;
+        drawnHigh = 0;
+        for (Integer number : drawnNumbers) {
+            if (number >= KenoBits.MIN_NUMBER && number <= KenoBits.MAX_NUMBER) {
+                drawnLow |= KenoBits.lowBit(number);
+                drawnHigh |= KenoBits.highBit(number);
+            }
+        }
     }
     public void setNumDraws(int numDraws) {
         this.numDrawings = numDraws;
@@ -153,13 +242,22 @@ public class KenoGame {
         this.numSpots = numSpots;
     }
 
-    public void setTotalWinnings(int totalWinnings) {
+    public void setTotalWinnings(long totalWinnings) {
         this.totalWinnings = totalWinnings;
     }
 
+    // add to the total winnings, failing instead of overflowing
+    public void addWinnings(long winnings) {
+        this.totalWinnings = Money.add(totalWinnings, winnings);
+    }
+
     public void resetGame() {
         this.numDrawings = 0;
         this.numSpots = 0;
         this.drawnNumbers.clear();
+        this.draw = null;
+        this.quickDraw = false;
+        this.drawnLow = 0;
+        this.drawnHigh = 0;
     }
 }
\ No newline at end of file
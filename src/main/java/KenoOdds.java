@@ -0,0 +1,70 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact Keno odds from the hypergeometric distribution. With n spots played and 20 of
+ * 80 numbers drawn, P(k matches) = C(n, k) * C(80 - n, 20 - k) / C(80, 20). Every binomial with
+ * k <= 20 is precomputed in a long table; the numerator never exceeds C(80, 20) (Vandermonde's
+ * identity), so it is exact in a long and only the final division is floating point.
+ *
+ * SpotOdds are memoised per (spots, paytable), so the odds screen and any API only compute a
+ * paytable's odds once.
+ */
+public final class KenoOdds {
+    // BINOMIAL[n][k] = C(n, k) for n <= 80, k <= 20
+    private static final long[][] BINOMIAL = new long[KenoBits.MAX_NUMBER + 1][KenoBits.DRAW_SIZE + 1];
+    private static final Map<Paytable, SpotOdds[]> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        for (int n = 0; n <= KenoBits.MAX_NUMBER; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, KenoBits.DRAW_SIZE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private KenoOdds() {
+    }
+
+    /**
+     * Gets the number of ways a draw can match exactly the given number of spots.
+     * @param spots the number of spots played, 0..20.
+     * @param matches the number of matches.
+     * @return C(spots, matches) * C(80 - spots, 20 - matches).
+     */
+    public static long ways(int spots, int matches) {
+        if (matches < 0 || matches > spots || matches > KenoBits.DRAW_SIZE || spots - matches > KenoBits.MAX_NUMBER - KenoBits.DRAW_SIZE) {
+            return 0;
+        }
+        return BINOMIAL[spots][matches] * BINOMIAL[KenoBits.MAX_NUMBER - spots][KenoBits.DRAW_SIZE - matches];
+    }
+
+    // C(n, k) for n <= 80, k <= 20
+    static long binomial(int n, int k) {
+        return k < 0 || k > n ? 0 : BINOMIAL[n][k];
+    }
+
+    // the exact probability of matching exactly the given number of spots
+    public static double probability(int spots, int matches) {
+        return (double) ways(spots, matches) / BINOMIAL[KenoBits.MAX_NUMBER][KenoBits.DRAW_SIZE];
+    }
+
+    /**
+     * Gets the odds of a spot count under a paytable, computing them on first use.
+     * @param spots the number of spots played, 0..10.
+     * @param paytable the paytable.
+     * @return the cached odds.
+     */
+    public static SpotOdds forSpots(int spots, Paytable paytable) {
+        return CACHE.computeIfAbsent(paytable, KenoOdds::computeAll)[spots];
+    }
+
+    private static SpotOdds[] computeAll(Paytable paytable) {
+        SpotOdds[] odds = new SpotOdds[Paytable.STRIDE];
+        for (int spots = 0; spots <= Paytable.MAX_SPOTS; spots++) {
+            odds[spots] = new SpotOdds(spots, paytable);
+        }
+        return odds;
+    }
+}
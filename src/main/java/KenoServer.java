@@ -0,0 +1,243 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A headless Keno server: the SessionRegistry and KenoEngine behind a loopback HTTP
+ * API on the JDK's built-in com.sun.net.httpserver, with no JavaFX and no extra dependencies.
+ * Each request runs on its own virtual thread when the JVM has them (Java 21+); on older JVMs it
+ * falls back to a cached thread pool.
+ *
+ * Endpoints (all responses are JSON, amounts are in cents):
+ * POST /sessions                                         open a session
+ * POST /sessions/{id}/tickets?numbers=3,17,42&wager=100   play a ticket on a new draw (wager up to $100)
+ * GET  /sessions/{id}/balance                            the session's totals
+ * GET  /draws/latest                                     the most recent draw
+ * GET  /stats                                            the house totals
+ *
+ * Usage: java KenoServer [port]
+ */
+public class KenoServer {
+    private static final long MAX_WAGER_DOLLARS = 100;
+
+    private final SessionRegistry registry;
+    private final TicketValidator validator;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicReference<DrawResult> latest = new AtomicReference<>();
+
+    /**
+     * Creates a server on the loopback interface; call start() to begin serving.
+     * @param registry the sessions to serve.
+     * @param port the port, or 0 for any free port.
+     */
+    public KenoServer(SessionRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        this.validator = new TicketValidator(registry.getEngine().getPaytable(), 1, 1, Money.ofDollars(MAX_WAGER_DOLLARS));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/sessions", exchange -> handle(exchange, this::handleSessions));
+        server.createContext("/draws/latest", exchange -> handle(exchange, this::handleLatestDraw));
+        server.createContext("/stats", exchange -> handle(exchange, this::handleStats));
+    }
+
+    // start serving requests
+    public void start() {
+        server.start();
+    }
+
+    // stop serving, waiting up to the given number of seconds for requests in flight
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    // the port the server is listening on
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // an endpoint's request handler
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Runs a handler so that every request gets a response: bad input is a 400, any other failure
+     * (an overflowing amount, a journal that cannot be written) is a 500, and the exchange is always
+     * closed so the client never waits for a response that is not coming.
+     */
+    private static void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            handler.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException from bad ids, numbers and wagers
+            respond(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error("Internal error: " + e));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // POST /sessions, POST /sessions/{id}/tickets, GET /sessions/{id}/balance
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+
+        if (path.length == 2) {
+            if (allows(exchange, "POST")) {
+                GameSession session = registry.open();
+                respond(exchange, 201, "{\"session\":" + session.getId() + "}");
+            }
+            return;
+        }
+        if (path.length != 4 || !(path[3].equals("tickets") || path[3].equals("balance"))) {
+            respond(exchange, 404, error("Not found"));
+            return;
+        }
+
+        GameSession session = registry.get(Long.parseLong(path[2]));
+        if (session == null) {
+            respond(exchange, 404, error("No open session " + path[2]));
+        } else if (path[3].equals("tickets")) {
+            if (allows(exchange, "POST")) {
+                playTicket(exchange, session);
+            }
+        } else if (allows(exchange, "GET")) {
+            respond(exchange, 200, "{\"session\":" + session.getId()
+                    + ",\"draws\":" + session.getDraws()
+                    + ",\"wagered\":" + session.getTotalWagered()
+                    + ",\"winnings\":" + session.getTotalWinnings()
+                    + ",\"balance\":" + session.getBalance() + "}");
+        }
+    }
+
+    private void playTicket(HttpExchange exchange, GameSession session) throws IOException {
+        String numbers = queryParameter(exchange, "numbers");
+        String wager = queryParameter(exchange, "wager");
+        if (numbers == null || wager == null) {
+            respond(exchange, 400, error("numbers and wager are required"));
+            return;
+        }
+        String[] parts = numbers.split(",");
+        int[] selected = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            selected[i] = Integer.parseInt(parts[i].trim());
+        }
+
+        Ticket ticket = new Ticket(selected);
+        long cents = Long.parseLong(wager);
+        byte error = validator.validate(ticket.getLow(), ticket.getHigh(), ticket.getSpots(), 1, cents);
+        if (error != TicketValidator.OK) {
+            respond(exchange, 400, error(TicketValidator.describe(error)));
+            return;
+        }
+
+        DrawResult result = registry.play(session.getId(), ticket, cents);
+        // requests finish out of order, so only ever move the latest draw forwards
+        latest.accumulateAndGet(result, (current, next) -> current == null || next.getDrawId() > current.getDrawId() ? next : current);
+        respond(exchange, 200, "{\"draw\":" + result.getDrawId()
+                + ",\"numbers\":" + numbersJson(result.getDraw())
+                + ",\"matches\":" + result.getMatches()
+                + ",\"payout\":" + result.getPayout()
+                + ",\"balance\":" + session.getBalance() + "}");
+    }
+
+    // GET /draws/latest
+    private void handleLatestDraw(HttpExchange exchange) throws IOException {
+        if (!allows(exchange, "GET")) {
+            return;
+        }
+        DrawResult result = latest.get();
+        if (result == null) {
+            respond(exchange, 404, error("No draws yet"));
+        } else {
+            respond(exchange, 200, "{\"draw\":" + result.getDrawId() + ",\"numbers\":" + numbersJson(result.getDraw()) + "}");
+        }
+    }
+
+    // GET /stats
+    private void handleStats(HttpExchange exchange) throws IOException {
+        if (!allows(exchange, "GET")) {
+            return;
+        }
+        HouseLedger ledger = registry.getLedger();
+        respond(exchange, 200, "{\"sessions\":" + registry.size()
+                + ",\"tickets\":" + ledger.getTickets()
+                + ",\"wagered\":" + ledger.getWagered()
+                + ",\"paidOut\":" + ledger.getPaidOut() + "}");
+    }
+
+    // answer any method but the endpoint's own with 405
+    private static boolean allows(HttpExchange exchange, String method) throws IOException {
+        if (exchange.getRequestMethod().equals(method)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", method);
+        respond(exchange, 405, error("Method not allowed"));
+        return false;
+    }
+
+    private static String numbersJson(Draw draw) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < draw.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(draw.numberAt(i));
+        }
+        return json.append(']').toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + String.valueOf(message).replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return pair.substring(equals + 1).replace("%2C", ",").replace("%2c", ",");
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // a virtual thread per request on Java 21+, otherwise a cached pool of platform threads
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        KenoServer server = new KenoServer(new SessionRegistry(new KenoEngine(Paytable.STANDARD, new SplittableDrawRandom())), port);
+        server.start();
+        System.out.println("Keno server listening on http://127.0.0.1:" + server.getPort());
+    }
+}
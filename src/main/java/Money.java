@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Money is fixed-point: a long number of cents. A long holds over 92 quadrillion
+ * dollars, and every operation here is exact: it either gives the right answer or throws
+ * ArithmeticException on overflow, instead of wrapping silently as an int total would. None of
+ * it allocates, so it is safe to use in the settlement hot path; BigDecimal is only for display.
+ */
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private Money() {
+    }
+
+    // convert whole dollars to cents
+    public static long ofDollars(long dollars) {
+        return Math.multiplyExact(dollars, CENTS_PER_DOLLAR);
+    }
+
+    // multiply an amount, e.g. a prize per $1 by a wager, failing on overflow
+    public static long multiply(long cents, long factor) {
+        return Math.multiplyExact(cents, factor);
+    }
+
+    // add two amounts, failing on overflow
+    public static long add(long cents, long moreCents) {
+        return Math.addExact(cents, moreCents);
+    }
+
+    /**
+     * Atomically adds to an amount held in an AtomicLong, failing on overflow without changing it.
+     * @param amount the amount to update.
+     * @param cents the cents to add, may be negative.
+     * @return the new amount.
+     */
+    public static long addAtomically(AtomicLong amount, long cents) {
+        while (true) {
+            long current = amount.get();
+            long updated = Math.addExact(current, cents);
+            if (amount.compareAndSet(current, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    // format an amount of cents as dollars, e.g. -1234 as "-$12.34"
+    public static String format(long cents) {
+        String sign = cents < 0 ? "-" : "";
+        long abs = Math.abs(cents);
+        if (abs < 0) {
+            // Long.MIN_VALUE has no positive counterpart
+            return "-$92233720368547758.08";
+        }
+        return String.format("%s$%d.%02d", sign, abs / CENTS_PER_DOLLAR, abs % CENTS_PER_DOLLAR);
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The live multi-draw tickets of a game. A multi-draw ticket plays the same numbers
+ * and wager on a window of consecutive draws, from its start draw id for its number of draws (up
+ * to MAX_DRAWS), and is settled as a unit: its payouts accumulate across the window and are
+ * reported once, when its last draw is settled.
+ *
+ * Tickets are indexed by the draw id their window starts at. When a draw is settled, the tickets
+ * starting on it join the active batch, so the active batch always holds exactly the tickets whose
+ * window covers the current draw and settling never looks at any other ticket. The remaining-draws
+ * column counts down in the same pass, and a ticket whose window ends is evicted then and there by
+ * swapping the last active ticket into its slot. Nothing ever scans for expired tickets.
+ *
+ * Draws must be settled in consecutive id order. Like KenoGame, a book is confined to one thread.
+ */
+public class MultiDrawBook {
+    public static final int MAX_DRAWS = 1000;
+
+    /**
+     * Called when a ticket's last draw has been settled.
+     */
+    public interface CompletionListener {
+        void completed(long ticketId, long totalPayout);
+    }
+
+    private final Paytable paytable;
+    private final Map<Long, Pending> starting = new HashMap<>();
+    private final TicketBatch active = new TicketBatch(64);
+    private long[] activeIds = new long[64];
+    private long[] activePayouts = new long[64];
+    private long nextTicketId = 1;
+    private long lastDrawId;
+    private int pendingCount;
+
+    /**
+     * Constructor for MultiDrawBook
+     * @param paytable the prizes per $1.
+     * @param lastDrawId the id of the last draw already settled; the next draw settled must be lastDrawId + 1.
+     */
+    public MultiDrawBook(Paytable paytable, long lastDrawId) {
+        this.paytable = paytable;
+        this.lastDrawId = lastDrawId;
+    }
+
+    /**
+     * Adds a multi-draw ticket.
+     * @param ticket the numbers played.
+     * @param startDrawId the first draw the ticket plays, after the last settled draw.
+     * @param draws the number of consecutive draws, 1..MAX_DRAWS.
+     * @param wager the wager per draw, in cents.
+     * @return the ticket id reported on completion.
+     */
+    public long add(Ticket ticket, long startDrawId, int draws, long wager) {
+        if (startDrawId <= lastDrawId) {
+            throw new IllegalArgumentException("Draw " + startDrawId + " has already been settled");
+        }
+        if (draws < 1 || draws > MAX_DRAWS) {
+            throw new IllegalArgumentException("A ticket can play 1 to " + MAX_DRAWS + " draws, not " + draws);
+        }
+        if (!paytable.hasRow(ticket.getSpots()) || wager < 0) {
+            throw new IllegalArgumentException("Ticket cannot be played: " + ticket.getSpots() + " spots, wager " + wager);
+        }
+        long id = nextTicketId++;
+        starting.computeIfAbsent(startDrawId, start -> new Pending()).add(id, ticket, draws, wager);
+        pendingCount++;
+        return id;
+    }
+
+    /**
+     * Settles the next draw against every ticket whose window covers it.
+     * @param drawId the id of the draw, lastDrawId + 1.
+     * @param draw the drawn numbers.
+     * @param histogram the prize tiers to add this draw's tickets to, or null.
+     * @param listener told about every ticket whose window ends with this draw.
+     * @return the total payout of this draw, in cents.
+     */
+    public long settle(long drawId, Draw draw, SettlementHistogram histogram, CompletionListener listener) {
+        if (drawId != lastDrawId + 1) {
+            throw new IllegalStateException("Expected draw " + (lastDrawId + 1) + " but got " + drawId);
+        }
+        lastDrawId = drawId;
+
+        Pending pending = starting.remove(drawId);
+        if (pending != null) {
+            activate(pending);
+        }
+
+        long drawLow = draw.getLow();
+        long drawHigh = draw.getHigh();
+        long total = 0;
+        // walk backwards so the ticket swapped into an evicted slot has already been settled
+        for (int i = active.size() - 1; i >= 0; i--) {
+            int spots = active.spots[i];
+            int hits = KenoBits.matches(drawLow, drawHigh, active.low[i], active.high[i]);
+            long payout = Money.multiply(paytable.payout(spots, hits), active.wagers[i]);
+            total = Money.add(total, payout);
+            activePayouts[i] = Money.add(activePayouts[i], payout);
+            if (histogram != null) {
+                int tier = spots * Paytable.STRIDE + hits;
+                histogram.counts[tier]++;
+                histogram.payouts[tier] = Money.add(histogram.payouts[tier], payout);
+            }
+            if (--active.draws[i] == 0) {
+                listener.completed(activeIds[i], activePayouts[i]);
+                int last = active.size() - 1;
+                activeIds[i] = activeIds[last];
+                activePayouts[i] = activePayouts[last];
+                active.swapRemove(i);
+            }
+        }
+        return total;
+    }
+
+    // move the tickets starting on this draw into the active batch
+    private void activate(Pending pending) {
+        TicketBatch batch = pending.batch;
+        for (int i = 0; i < batch.size(); i++) {
+            int slot = active.add(batch.low[i], batch.high[i], batch.spots[i], batch.draws[i], batch.wagers[i]);
+            if (slot == activeIds.length) {
+                activeIds = Arrays.copyOf(activeIds, slot * 2);
+                activePayouts = Arrays.copyOf(activePayouts, slot * 2);
+            }
+            activeIds[slot] = pending.ids[i];
+            activePayouts[slot] = 0;
+        }
+        pendingCount -= batch.size();
+    }
+
+    /**
+     * Getters
+     */
+    public long getLastDrawId() {
+        return lastDrawId;
+    }
+
+    // the number of tickets playing the current draw
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    // the number of tickets whose window has not started yet
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    // the tickets that start on one draw
+    private static final class Pending {
+        final TicketBatch batch = new TicketBatch(16);
+        long[] ids = new long[16];
+
+        void add(long id, Ticket ticket, int draws, long wager) {
+            int index = batch.add(ticket.getLow(), ticket.getHigh(), ticket.getSpots(), draws, wager);
+            if (index == ids.length) {
+                ids = Arrays.copyOf(ids, index * 2);
+            }
+            ids[index] = id;
+        }
+    }
+}
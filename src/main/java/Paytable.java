@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * The prize for each (spots, matches) pair, per $1 wagered. Prizes are stored in one
+ * flat long array indexed by spots * STRIDE + matches, so a payout lookup is a single array read
+ * with no branching on the spot count. Both KenoGame and the winnings column read from here.
+ */
+public final class Paytable {
+    static final int MAX_SPOTS = 10;
+    static final int STRIDE = MAX_SPOTS + 1;
+
+    /**
+     * The paytable the game has always used: 1, 4, 8 and 10 spot games.
+     */
+    public static final Paytable STANDARD = new Paytable(new long[][]{
+            {},
+            {0, 2},
+            {},
+            {},
+            {0, 0, 1, 5, 75},
+            {},
+            {},
+            {},
+            {0, 0, 0, 0, 2, 12, 50, 750, 10000},
+            {},
+            {5, 0, 0, 0, 0, 2, 15, 40, 450, 4250, 100000}
+    });
+
+    private final long[] payouts = new long[STRIDE * STRIDE];
+
+    /**
+     * Creates a paytable from one row of prizes per spot count.
+     * @param rows rows[spots][matches] is the prize for matching that many of spots numbers;
+     *             missing rows and entries pay nothing.
+     */
+    public Paytable(long[][] rows) {
+        if (rows.length > STRIDE) {
+            throw new IllegalArgumentException("At most " + MAX_SPOTS + " spots are supported");
+        }
+        for (int spots = 0; spots < rows.length; spots++) {
+            if (rows[spots].length > spots + 1) {
+                throw new IllegalArgumentException("Row for " + spots + " spots has more than " + (spots + 1) + " entries");
+            }
+            for (int matches = 0; matches < rows[spots].length; matches++) {
+                if (rows[spots][matches] < 0) {
+                    throw new IllegalArgumentException("Negative prize for " + spots + " spots, " + matches + " matches");
+                }
+                payouts[spots * STRIDE + matches] = rows[spots][matches];
+            }
+        }
+    }
+
+    /**
+     * Gets the prize per $1 wagered.
+     * @param spots the number of spots played, 0..10.
+     * @param matches the number of spots matched, 0..spots.
+     * @return the prize, 0 when the combination does not pay.
+     */
+    public long payout(int spots, int matches) {
+        // matches beyond spots would read into the next row, so they are rejected rather than indexed
+        if (spots < 0 || spots > MAX_SPOTS || matches < 0 || matches > spots) {
+            throw new IllegalArgumentException("No payout for " + matches + " matches on " + spots + " spots");
+        }
+        return payouts[spots * STRIDE + matches];
+    }
+
+    // check whether any prize is offered for the given spot count
+    public boolean hasRow(int spots) {
+        if (spots < 0 || spots > MAX_SPOTS) {
+            return false;
+        }
+        for (int matches = 0; matches <= spots; matches++) {
+            if (payouts[spots * STRIDE + matches] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Paytable && Arrays.equals(payouts, ((Paytable) other).payouts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(payouts);
+    }
+}
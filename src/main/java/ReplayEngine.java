@@ -0,0 +1,266 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Re-settles historical draws, for example against a corrected paytable or a new
+ * engine build, and reconciles the result with what was originally paid. The draws come from a
+ * DrawJournal and the tickets from a TicketLog, both in draw id order, so they are streamed side
+ * by side: only a chunk of draws and their tickets is in memory at a time. A chunk ends at CHUNK
+ * draws or once it holds CHUNK_TICKETS tickets, whichever comes first, and ticket batches that
+ * grew past their share of a chunk are dropped after it is settled, so memory stays bounded by
+ * the chunk size plus the largest single draw. Tickets from the log are checked by a
+ * TicketValidator and malformed ones are skipped. Each chunk is split across cores with
+ * fork/join, and every leaf settles its draws through TicketSettler with its own reused
+ * SettlementResult. The output is a ReplayReport of per-draw totals and their diff against the
+ * recorded totals; a draw with no recorded total counts as having paid nothing.
+ *
+ * Recorded totals are kept in a file of their own: a KenoCodec header, then one (long draw id,
+ * long total payout in cents) pair per draw.
+ *
+ * Usage: java ReplayEngine journalDirectory ticketLog recordedTotals
+ */
+public class ReplayEngine {
+    private static final int THRESHOLD = 256;
+    private static final int CHUNK = 16 * THRESHOLD;
+    private static final int CHUNK_TICKETS = 1 << 18;
+    private static final int BATCH_CAPACITY = CHUNK_TICKETS / CHUNK;
+
+    private final TicketSettler settler;
+    private final TicketValidator validator;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for ReplayEngine
+     * @param paytable the paytable to re-settle with.
+     * @param parallelism the number of worker threads.
+     */
+    public ReplayEngine(Paytable paytable, int parallelism) {
+        this.settler = new TicketSettler(paytable);
+        // a replay checks tickets are well formed, not that they were within the limits of the day
+        this.validator = new TicketValidator(paytable, 0xFFFF, 0, Long.MAX_VALUE);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Replays a stored day of draws and tickets.
+     * @param journal the DrawJournal directory.
+     * @param ticketLog the TicketLog file.
+     * @param recordedTotals the recorded totals file, or null if nothing was recorded.
+     * @return the replayed totals and their diff against the recorded ones.
+     */
+    public ReplayReport replay(Path journal, Path ticketLog, Path recordedTotals) throws IOException {
+        long start = System.nanoTime();
+        Map<Long, Long> recorded = recordedTotals == null ? Collections.emptyMap() : readTotals(recordedTotals);
+        Replay stream = new Replay(recorded);
+        try (TicketLog.Reader tickets = new TicketLog.Reader(ticketLog, validator)) {
+            DrawJournal.read(journal, (drawId, timestamp, draw, provenance) -> stream.add(drawId, draw, tickets));
+            stream.flush();
+            // tickets for draws after the last journaled one were never asked for
+            tickets.skipRemaining();
+            return stream.report(tickets.getSkipped(), System.nanoTime() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replays draws already in memory.
+     * @param drawIds the id of each draw.
+     * @param draws the draws, aligned with drawIds.
+     * @param tickets the tickets played on each draw id; draws with no entry had no tickets.
+     * @param recordedTotals the originally recorded total payout of each draw id.
+     * @return the replayed totals and their diff against the recorded ones.
+     */
+    public ReplayReport replay(long[] drawIds, Draw[] draws, Map<Long, TicketBatch> tickets, Map<Long, Long> recordedTotals) {
+        long start = System.nanoTime();
+        int count = drawIds.length;
+
+        // Resolve the per-draw lookups up front so the workers only touch arrays
+        TicketBatch[] batches = new TicketBatch[count];
+        long[] recorded = new long[count];
+        boolean[] hasRecorded = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            batches[i] = tickets.get(drawIds[i]);
+            Long total = recordedTotals.get(drawIds[i]);
+            hasRecorded[i] = total != null;
+            recorded[i] = total == null ? 0 : total;
+        }
+
+        long[] payouts = new long[count];
+        pool.invoke(new Range(draws, batches, payouts, 0, count));
+        return new ReplayReport(drawIds.clone(), payouts, recorded, hasRecorded, 0, System.nanoTime() - start);
+    }
+
+    // stop the worker threads
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // collects journaled draws and their tickets a chunk at a time, settling each full chunk
+    private final class Replay {
+        private final Map<Long, Long> recordedTotals;
+        private final Draw[] draws = new Draw[CHUNK];
+        private final TicketBatch[] batches = new TicketBatch[CHUNK];
+        private final long[] chunkPayouts = new long[CHUNK];
+        private int chunkSize;
+        private long chunkTickets;
+
+        private long[] drawIds = new long[CHUNK];
+        private long[] payouts = new long[CHUNK];
+        private long[] recorded = new long[CHUNK];
+        private boolean[] hasRecorded = new boolean[CHUNK];
+        private int size;
+
+        Replay(Map<Long, Long> recordedTotals) {
+            this.recordedTotals = recordedTotals;
+            for (int i = 0; i < CHUNK; i++) {
+                batches[i] = new TicketBatch(BATCH_CAPACITY);
+            }
+        }
+
+        void add(long drawId, Draw draw, TicketLog.Reader tickets) {
+            if (chunkSize == CHUNK || chunkTickets >= CHUNK_TICKETS) {
+                flush();
+            }
+            if (size + chunkSize == drawIds.length) {
+                drawIds = Arrays.copyOf(drawIds, drawIds.length * 2);
+            }
+            drawIds[size + chunkSize] = drawId;
+            draws[chunkSize] = draw;
+            try {
+                chunkTickets += tickets.read(drawId, batches[chunkSize]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the tickets of draw " + drawId, e);
+            }
+            chunkSize++;
+        }
+
+        // settle the draws collected so far
+        void flush() {
+            pool.invoke(new Range(draws, batches, chunkPayouts, 0, chunkSize));
+            if (size + chunkSize > payouts.length) {
+                payouts = Arrays.copyOf(payouts, drawIds.length);
+                recorded = Arrays.copyOf(recorded, drawIds.length);
+                hasRecorded = Arrays.copyOf(hasRecorded, drawIds.length);
+            }
+            System.arraycopy(chunkPayouts, 0, payouts, size, chunkSize);
+            for (int i = size; i < size + chunkSize; i++) {
+                Long total = recordedTotals.get(drawIds[i]);
+                hasRecorded[i] = total != null;
+                recorded[i] = total == null ? 0 : total;
+            }
+            Arrays.fill(draws, 0, chunkSize, null);
+            for (int i = 0; i < chunkSize; i++) {
+                // a batch never shrinks, so let go of one a busy draw grew
+                if (batches[i].size() > BATCH_CAPACITY) {
+                    batches[i] = new TicketBatch(BATCH_CAPACITY);
+                }
+            }
+            size += chunkSize;
+            chunkSize = 0;
+            chunkTickets = 0;
+        }
+
+        ReplayReport report(long skippedTickets, long elapsedNanos) {
+            return new ReplayReport(Arrays.copyOf(drawIds, size), Arrays.copyOf(payouts, size),
+                    Arrays.copyOf(recorded, size), Arrays.copyOf(hasRecorded, size), skippedTickets, elapsedNanos);
+        }
+    }
+
+    // settles a range of draws, splitting until the range is small enough
+    @SuppressWarnings("serial")
+    private final class Range extends RecursiveAction {
+        private final Draw[] draws;
+        private final TicketBatch[] batches;
+        private final long[] payouts;
+        private final int from;
+        private final int to;
+
+        Range(Draw[] draws, TicketBatch[] batches, long[] payouts, int from, int to) {
+            this.draws = draws;
+            this.batches = batches;
+            this.payouts = payouts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Range(draws, batches, payouts, from, middle), new Range(draws, batches, payouts, middle, to));
+                return;
+            }
+            SettlementResult result = new SettlementResult(0);
+            for (int i = from; i < to; i++) {
+                if (batches[i] != null && batches[i].size() > 0) {
+                    settler.settle(draws[i], batches[i], result);
+                    payouts[i] = result.getTotalPayout();
+                } else {
+                    payouts[i] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes per-draw payout totals for a later reconciliation.
+     * @param path the file to write.
+     * @param drawIds the draw ids.
+     * @param totals the total payout of each draw, in cents.
+     */
+    public static void writeTotals(Path path, long[] drawIds, long[] totals) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(KenoCodec.HEADER_BYTES + 16 * drawIds.length);
+        KenoCodec.writeHeader(buffer);
+        for (int i = 0; i < drawIds.length; i++) {
+            buffer.putLong(drawIds[i]);
+            buffer.putLong(totals[i]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads per-draw payout totals written by writeTotals.
+     * @param path the file to read.
+     * @return the total payout of each draw id, in cents.
+     */
+    public static Map<Long, Long> readTotals(Path path) throws IOException {
+        Map<Long, Long> totals = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            KenoCodec.readHeader(buffer);
+            while (buffer.remaining() >= 16) {
+                totals.put(buffer.getLong(), buffer.getLong());
+            }
+        }
+        return totals;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java ReplayEngine journalDirectory ticketLog [recordedTotals]");
+            return;
+        }
+        ReplayEngine engine = new ReplayEngine(Paytable.STANDARD, Runtime.getRuntime().availableProcessors());
+        ReplayReport report = engine.replay(Paths.get(args[0]), Paths.get(args[1]), args.length > 2 ? Paths.get(args[2]) : null);
+        engine.shutdown();
+        System.out.print(report);
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The result of a ReplayEngine run. For every replayed draw (by index, in journal
+ * order) it holds the draw id, the payout total the replay computed, and the total originally
+ * recorded, if there was one. Draws where the two differ are the reconciliation diff; a draw with
+ * no recorded total is taken to have paid nothing, so an unrecorded draw without winners matches.
+ */
+public class ReplayReport {
+    private final long[] drawIds;
+    private final long[] payouts;
+    private final long[] recorded;
+    private final boolean[] hasRecorded;
+    private final int[] mismatches;
+    private final long skippedTickets;
+    private final long elapsedNanos;
+
+    ReplayReport(long[] drawIds, long[] payouts, long[] recorded, boolean[] hasRecorded, long skippedTickets, long elapsedNanos) {
+        this.drawIds = drawIds;
+        this.payouts = payouts;
+        this.recorded = recorded;
+        this.hasRecorded = hasRecorded;
+        this.skippedTickets = skippedTickets;
+        this.elapsedNanos = elapsedNanos;
+
+        int count = 0;
+        for (int i = 0; i < drawIds.length; i++) {
+            if (isMismatch(i)) {
+                count++;
+            }
+        }
+        mismatches = new int[count];
+        count = 0;
+        for (int i = 0; i < drawIds.length; i++) {
+            if (isMismatch(i)) {
+                mismatches[count++] = i;
+            }
+        }
+    }
+
+    // check whether the replayed total differs from the recorded one, or from 0 if none was recorded
+    public boolean isMismatch(int index) {
+        return payouts[index] != recorded[index];
+    }
+
+    // the total of all replayed payouts, in cents
+    public long getTotalPayout() {
+        long total = 0;
+        for (long payout : payouts) {
+            total = Money.add(total, payout);
+        }
+        return total;
+    }
+
+    /**
+     * Getters
+     */
+    public int getDrawCount() {
+        return drawIds.length;
+    }
+
+    public long getDrawId(int index) {
+        return drawIds[index];
+    }
+
+    public long getPayout(int index) {
+        return payouts[index];
+    }
+
+    public boolean hasRecorded(int index) {
+        return hasRecorded[index];
+    }
+
+    public long getRecorded(int index) {
+        return recorded[index];
+    }
+
+    // the indices of the draws whose totals differ
+    public int[] getMismatches() {
+        return mismatches.clone();
+    }
+
+    // tickets in the log that were malformed or played on a draw missing from the journal
+    public long getSkippedTickets() {
+        return skippedTickets;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%,d draws replayed in %.3f s, total payout %s, %d mismatches, %,d tickets skipped%n",
+                drawIds.length, elapsedNanos / 1e9, Money.format(getTotalPayout()), mismatches.length, skippedTickets));
+        for (int index : mismatches) {
+            report.append(String.format("draw %d: replayed %s, recorded %s%n", drawIds[index],
+                    Money.format(payouts[index]), hasRecorded[index] ? Money.format(recorded[index]) : "nothing"));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * A Monte Carlo simulator that checks a paytable's return to player by playing draws
+ * on every core. The draws are split into fork/join chunks; every chunk gets its own DrawRandomSource
+ * split off the root and its own DrawGenerator, and counts (spots, matches) into a private histogram
+ * that is summed when the chunks join. A run is divided into rounds and reports after each one,
+ * so the confidence intervals can be watched narrowing.
+ *
+ * For each spot count the simulator plays the ticket 1..spots. Every ticket of the same size has
+ * the same distribution, so one ticket per size is enough.
+ *
+ * Usage: java RtpSimulator [draws]
+ */
+public class RtpSimulator {
+    private static final int CHUNK = 1 << 16;
+    private static final int BATCH = 1024;
+
+    private final Paytable paytable;
+    private final DrawRandomSource root;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for RtpSimulator
+     * @param paytable the paytable to measure.
+     * @param root the stream every worker stream is split from.
+     * @param parallelism the number of worker threads.
+     */
+    public RtpSimulator(Paytable paytable, DrawRandomSource root, int parallelism) {
+        this.paytable = paytable;
+        this.root = root;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Simulates draws and reports after each round.
+     * @param draws the total number of draws.
+     * @param rounds the number of rounds to split the draws into.
+     * @param progress called with the cumulative report after every round, may be null.
+     * @return the final report.
+     */
+    public SimulationReport run(long draws, int rounds, Consumer<SimulationReport> progress) {
+        long[] histogram = new long[Paytable.STRIDE * Paytable.STRIDE];
+        long done = 0;
+        long start = System.nanoTime();
+        SimulationReport report = new SimulationReport(paytable, histogram, 0, 0, pool.getParallelism());
+
+        for (int round = 0; round < rounds; round++) {
+            long roundDraws = (draws - done) / (rounds - round);
+            long[] roundHistogram = pool.invoke(new Chunk(root.split(), roundDraws));
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += roundHistogram[i];
+            }
+            done += roundDraws;
+            report = new SimulationReport(paytable, histogram, done, System.nanoTime() - start, pool.getParallelism());
+            if (progress != null) {
+                progress.accept(report);
+            }
+        }
+        return report;
+    }
+
+    // stop the worker threads
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // simulates a range of draws, splitting until a chunk is small enough
+    @SuppressWarnings("serial")
+    private final class Chunk extends RecursiveTask<long[]> {
+        private final DrawRandomSource random;
+        private final long draws;
+
+        Chunk(DrawRandomSource random, long draws) {
+            this.random = random;
+            this.draws = draws;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (draws > CHUNK) {
+                long half = draws / 2;
+                Chunk left = new Chunk(random.split(), half);
+                Chunk right = new Chunk(random, draws - half);
+                left.fork();
+                long[] histogram = right.compute();
+                long[] other = left.join();
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] += other[i];
+                }
+                return histogram;
+            }
+            return simulate();
+        }
+
+        private long[] simulate() {
+            // The ticket 1..spots for every spot count the paytable pays on
+            long[] ticketLow = new long[Paytable.STRIDE];
+            long[] ticketHigh = new long[Paytable.STRIDE];
+            int[] spotCounts = new int[Paytable.STRIDE];
+            int rows = 0;
+            for (int spots = 1; spots <= Paytable.MAX_SPOTS; spots++) {
+                if (paytable.hasRow(spots)) {
+                    for (int number = 1; number <= spots; number++) {
+                        ticketLow[rows] |= KenoBits.lowBit(number);
+                        ticketHigh[rows] |= KenoBits.highBit(number);
+                    }
+                    spotCounts[rows++] = spots;
+                }
+            }
+
+            DrawGenerator generator = new DrawGenerator(random);
+            long[] batch = new long[2 * BATCH];
+            long[] histogram = new long[Paytable.STRIDE * Paytable.STRIDE];
+            for (long done = 0; done < draws; done += BATCH) {
+                int count = (int) Math.min(BATCH, draws - done);
+                generator.drawBatch(count, batch);
+                for (int row = 0; row < rows; row++) {
+                    int base = spotCounts[row] * Paytable.STRIDE;
+                    long low = ticketLow[row];
+                    long high = ticketHigh[row];
+                    for (int i = 0; i < count; i++) {
+                        histogram[base + KenoBits.matches(batch[2 * i], batch[2 * i + 1], low, high)]++;
+                    }
+                }
+            }
+            return histogram;
+        }
+    }
+
+    public static void main(String[] args) {
+        long draws = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int cores = Runtime.getRuntime().availableProcessors();
+        RtpSimulator simulator = new RtpSimulator(Paytable.STANDARD, new XoshiroDrawRandom(), cores);
+        simulator.run(draws, 10, System.out::println);
+        simulator.shutdown();
+    }
+}
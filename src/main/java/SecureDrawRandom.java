@@ -0,0 +1,51 @@
+import java.security.SecureRandom;
+
+/**
+ * A DrawRandomSource for certified draws, backed by SecureRandom. Instead of asking
+ * SecureRandom for every number, it fills a block of bytes in one call and serves longs out of
+ * that block until it runs dry, so a draw costs a fraction of a SecureRandom call.
+ */
+public class SecureDrawRandom implements DrawRandomSource {
+    private static final int BLOCK_SIZE = 4096;
+
+    private final SecureRandom random;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private int position = BLOCK_SIZE;
+
+    /**
+     * Constructor for SecureDrawRandom, using the platform's default SecureRandom.
+     */
+    public SecureDrawRandom() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * @param random the SecureRandom to read blocks from.
+     */
+    public SecureDrawRandom(SecureRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public long nextLong() {
+        if (position == BLOCK_SIZE) {
+            random.nextBytes(block);
+            position = 0;
+        }
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (block[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    @Override
+    public DrawRandomSource split() {
+        return new SecureDrawRandom(new SecureRandom());
+    }
+
+    @Override
+    public byte provenance() {
+        return PROVENANCE_SECURE;
+    }
+}
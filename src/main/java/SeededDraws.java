@@ -0,0 +1,48 @@
+/**
+ * Deterministic draws: given a master seed, draw(drawId) always returns the same
+ * draw, in O(1) and independently of any other draw. A payout dispute or a simulation bug can be
+ * reproduced from the seed and the draw id alone, and parallel workers can each take a disjoint
+ * range of draw ids with their own SeededDraws and the same seed.
+ *
+ * Each draw restarts the DrawGenerator pool and a CounterDrawRandom at that draw's position, so
+ * the result does not depend on what was drawn before. An instance is not thread-safe.
+ */
+public class SeededDraws {
+    private final CounterDrawRandom random;
+    private final DrawGenerator generator;
+
+    /**
+     * @param masterSeed the seed every draw is derived from.
+     */
+    public SeededDraws(long masterSeed) {
+        this.random = new CounterDrawRandom(masterSeed);
+        this.generator = new DrawGenerator(random);
+    }
+
+    // regenerate a draw
+    public Draw draw(long drawId) {
+        position(drawId);
+        return generator.nextDraw();
+    }
+
+    // regenerate a draw into a buffer of 20 numbers, in draw order
+    public void draw(long drawId, int[] out, int offset) {
+        position(drawId);
+        generator.draw(out, offset);
+    }
+
+    // regenerate a draw as a bitset into out[offset] and out[offset + 1]
+    public void drawBits(long drawId, long[] out, int offset) {
+        position(drawId);
+        generator.drawBits(out, offset);
+    }
+
+    private void position(long drawId) {
+        random.position(drawId);
+        generator.reset();
+    }
+
+    public long getMasterSeed() {
+        return random.getMasterSeed();
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * All open game sessions, keyed by id. Lookups go through a ConcurrentHashMap, which
+ * never locks for reads and only locks one bin for writes, and each session updates its own state
+ * atomically, so there is no global lock anywhere between placing a ticket and settling it.
+ *
+ * Usage:
+ * SessionRegistry registry = new SessionRegistry(new KenoEngine(Paytable.STANDARD, new SplittableDrawRandom()));
+ * long id = registry.open().getId();
+ * DrawResult result = registry.play(id, new Ticket(3, 17, 42, 80), 100);
+ */
+public class SessionRegistry {
+    private final KenoEngine engine;
+    private final HouseLedger ledger = new HouseLedger();
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * @param engine the engine every session plays on.
+     */
+    public SessionRegistry(KenoEngine engine) {
+        this.engine = engine;
+    }
+
+    // open a new session
+    public GameSession open() {
+        GameSession session = new GameSession(nextId.getAndIncrement());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // get an open session, or null if there is none with that id
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    // close a session, returning it, or null if there was none with that id
+    public GameSession close(long id) {
+        return sessions.remove(id);
+    }
+
+    /**
+     * Plays a ticket for a session on a new draw.
+     * @param id the session id.
+     * @param ticket the ticket.
+     * @param wager the amount wagered, in cents.
+     * @return the result of the draw.
+     */
+    public DrawResult play(long id, Ticket ticket, long wager) {
+        GameSession session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("No open session " + id);
+        }
+        DrawResult result = session.play(engine, ticket, wager);
+        ledger.record(result.getWager(), result.getPayout());
+        return result;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public HouseLedger getLedger() {
+        return ledger;
+    }
+
+    public KenoEngine getEngine() {
+        return engine;
+    }
+}
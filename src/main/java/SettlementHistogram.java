@@ -0,0 +1,86 @@
+import java.util.Arrays;
+
+/**
+ * Winner aggregation for one draw: the number of tickets and the total payout in
+ * cents for every (spots, matches) prize tier, e.g. how many 8-spot tickets hit 7 and what they
+ * were paid. TicketSettler fills it in the same pass that computes the matches, and histograms
+ * built by parallel workers are merged with merge(). Tiers use the Paytable layout, two flat
+ * arrays indexed by spots * Paytable.STRIDE + matches.
+ */
+public class SettlementHistogram {
+    final long[] counts = new long[Paytable.STRIDE * Paytable.STRIDE];
+    final long[] payouts = new long[Paytable.STRIDE * Paytable.STRIDE];
+
+    // empty the histogram so it can be reused for the next draw
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(payouts, 0);
+    }
+
+    // add another histogram's tiers to this one
+    public void merge(SettlementHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+            payouts[i] = Money.add(payouts[i], other.payouts[i]);
+        }
+    }
+
+    /**
+     * Counts the tickets that won anything. Winning is decided by the paytable rather than by the
+     * amounts paid, so a tier of zero-wager winners still counts.
+     * @param paytable the paytable the draw was settled with.
+     */
+    public long getWinners(Paytable paytable) {
+        long winners = 0;
+        for (int spots = 0; spots <= Paytable.MAX_SPOTS; spots++) {
+            for (int matches = 0; matches <= spots; matches++) {
+                if (paytable.payout(spots, matches) != 0) {
+                    winners += counts[spots * Paytable.STRIDE + matches];
+                }
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Getters
+     */
+    public long getCount(int spots, int matches) {
+        return counts[spots * Paytable.STRIDE + matches];
+    }
+
+    public long getPayout(int spots, int matches) {
+        return payouts[spots * Paytable.STRIDE + matches];
+    }
+
+    public long getTickets() {
+        long tickets = 0;
+        for (long count : counts) {
+            tickets += count;
+        }
+        return tickets;
+    }
+
+    public long getTotalPayout() {
+        long total = 0;
+        for (long payout : payouts) {
+            total = Money.add(total, payout);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (int spots = 0; spots <= Paytable.MAX_SPOTS; spots++) {
+            for (int matches = 0; matches <= spots; matches++) {
+                long count = getCount(spots, matches);
+                if (count != 0) {
+                    report.append(String.format("%2d spots, %2d matches: %,d tickets, %s%n",
+                            spots, matches, count, Money.format(getPayout(spots, matches))));
+                }
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * The output of settling a TicketBatch against a draw: for each ticket index, the
+ * number of matches and the payout in cents, plus the total paid. Like TicketBatch it is meant to
+ * be reused draw after draw; its arrays only grow.
+ */
+public class SettlementResult {
+    int[] matches;
+    long[] payouts;
+    long totalPayout;
+    private int size;
+
+    /**
+     * Constructor for SettlementResult
+     * @param capacity the number of tickets to make room for up front.
+     */
+    public SettlementResult(int capacity) {
+        matches = new int[capacity];
+        payouts = new long[capacity];
+    }
+
+    // make room for a batch of the given size and reset the totals
+    void reset(int size) {
+        if (matches.length < size) {
+            matches = new int[size];
+            payouts = new long[size];
+        }
+        this.size = size;
+        totalPayout = 0;
+    }
+
+    /**
+     * Getters
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getMatches(int index) {
+        return matches[index];
+    }
+
+    public long getPayout(int index) {
+        return payouts[index];
+    }
+
+    public long getTotalPayout() {
+        return totalPayout;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * A snapshot of an RtpSimulator run. The simulator only keeps a match-count
+ * histogram per spot count; RTP, hit frequency, variance and confidence intervals are all derived
+ * from it and the paytable, since every draw's payout is determined by its (spots, matches) cell.
+ */
+public class SimulationReport {
+    // z-score of a two-sided 95% confidence interval
+    private static final double Z_95 = 1.959963984540054;
+
+    private final Paytable paytable;
+    private final long[] histogram;
+    private final long draws;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    SimulationReport(Paytable paytable, long[] histogram, long draws, long elapsedNanos, int parallelism) {
+        this.paytable = paytable;
+        this.histogram = histogram.clone();
+        this.draws = draws;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    // the number of simulated draws where a spots-spot ticket matched the given number
+    public long getCount(int spots, int matches) {
+        return histogram[spots * Paytable.STRIDE + matches];
+    }
+
+    // the simulated return to player per $1 wagered on a spots-spot ticket
+    public double getRtp(int spots) {
+        return draws == 0 ? 0 : (double) totalPayout(spots) / draws;
+    }
+
+    // the fraction of draws in which a spots-spot ticket won something
+    public double getHitFrequency(int spots) {
+        if (draws == 0) {
+            return 0;
+        }
+        long hits = 0;
+        for (int matches = 0; matches <= spots; matches++) {
+            if (paytable.payout(spots, matches) != 0) {
+                hits += getCount(spots, matches);
+            }
+        }
+        return (double) hits / draws;
+    }
+
+    // the sample variance of the payout per $1 on a spots-spot ticket
+    public double getVariance(int spots) {
+        if (draws < 2) {
+            return 0;
+        }
+        double mean = getRtp(spots);
+        double sumSquares = 0;
+        for (int matches = 0; matches <= spots; matches++) {
+            double payout = paytable.payout(spots, matches);
+            sumSquares += payout * payout * getCount(spots, matches);
+        }
+        return (sumSquares - draws * mean * mean) / (draws - 1);
+    }
+
+    // the half-width of the 95% confidence interval around getRtp(spots)
+    public double getRtpConfidence(int spots) {
+        return draws == 0 ? Double.POSITIVE_INFINITY : Z_95 * Math.sqrt(getVariance(spots) / draws);
+    }
+
+    // the simulated draws per second per worker thread
+    public double getDrawsPerSecondPerCore() {
+        return elapsedNanos == 0 ? 0 : draws * 1e9 / elapsedNanos / parallelism;
+    }
+
+    private long totalPayout(int spots) {
+        long total = 0;
+        for (int matches = 0; matches <= spots; matches++) {
+            total = Money.add(total, Money.multiply(paytable.payout(spots, matches), getCount(spots, matches)));
+        }
+        return total;
+    }
+
+    /**
+     * Getters
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%,d draws, %,.0f draws/s per core on %d cores%n",
+                draws, getDrawsPerSecondPerCore(), parallelism));
+        for (int spots = 1; spots <= Paytable.MAX_SPOTS; spots++) {
+            if (paytable.hasRow(spots)) {
+                report.append(String.format("%2d spots: RTP %.5f +/- %.5f, hit frequency %.5f, variance %.3f%n",
+                        spots, getRtp(spots), getRtpConfidence(spots), getHitFrequency(spots), getVariance(spots)));
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.SplittableRandom;
+
+/**
+ * A DrawRandomSource backed by java.util.SplittableRandom. This is the default
+ * source for KenoGame; split() uses SplittableRandom.split() for independent worker streams.
+ */
+public class SplittableDrawRandom implements DrawRandomSource {
+    private final SplittableRandom random;
+
+    /**
+     * Constructor for SplittableDrawRandom, seeded from the system.
+     */
+    public SplittableDrawRandom() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * @param seed the seed, for reproducible streams.
+     */
+    public SplittableDrawRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SplittableDrawRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public DrawRandomSource split() {
+        return new SplittableDrawRandom(random.split());
+    }
+
+    @Override
+    public byte provenance() {
+        return PROVENANCE_SPLITTABLE;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * The exact odds of one spot count under one paytable, as computed by KenoOdds:
+ * the probability of every number of matches, the odds of winning anything and of each prize,
+ * and the exact return to player. Instances are immutable and shared from the KenoOdds cache.
+ */
+public final class SpotOdds {
+    private final int spots;
+    private final double[] probabilities;
+    private final double hitProbability;
+    private final double rtp;
+    private final Paytable paytable;
+
+    SpotOdds(int spots, Paytable paytable) {
+        this.spots = spots;
+        this.paytable = paytable;
+        probabilities = new double[spots + 1];
+        double hit = 0;
+        double expected = 0;
+        for (int matches = 0; matches <= spots; matches++) {
+            probabilities[matches] = KenoOdds.probability(spots, matches);
+            long prize = paytable.payout(spots, matches);
+            if (prize != 0) {
+                hit += probabilities[matches];
+                expected += prize * probabilities[matches];
+            }
+        }
+        hitProbability = hit;
+        rtp = expected;
+    }
+
+    // the probability of matching exactly the given number of spots
+    public double getProbability(int matches) {
+        return matches < 0 || matches > spots ? 0 : probabilities[matches];
+    }
+
+    // X in "1 in X" for winning any prize, infinite when nothing pays
+    public double getHitOdds() {
+        return 1 / hitProbability;
+    }
+
+    // X in "1 in X" for the prize paid on the given number of matches
+    public double getPrizeOdds(int matches) {
+        return 1 / getProbability(matches);
+    }
+
+    /**
+     * Getters
+     */
+    public int getSpots() {
+        return spots;
+    }
+
+    public double getHitProbability() {
+        return hitProbability;
+    }
+
+    public double getRtp() {
+        return rtp;
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+}
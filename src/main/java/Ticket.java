@@ -0,0 +1,60 @@
+import java.util.List;
+
+/**
+ * An immutable Keno ticket: the player's selected numbers in the same two-long
+ * bitset encoding as Draw, so scoring a ticket against a draw is Draw.matches(ticket).
+ */
+public final class Ticket {
+    private final long lo;
+    private final long hi;
+    private final int spots;
+
+    /**
+     * Creates a ticket from the selected numbers.
+     * @param numbers the selected numbers, each in 1..80 and without duplicates.
+     */
+    public Ticket(int... numbers) {
+        long lo = 0;
+        long hi = 0;
+        for (int number : numbers) {
+            KenoBits.checkNumber(number);
+            if (KenoBits.contains(lo, hi, number)) {
+                throw new IllegalArgumentException("Duplicate selected number: " + number);
+            }
+            lo |= KenoBits.lowBit(number);
+            hi |= KenoBits.highBit(number);
+        }
+        this.lo = lo;
+        this.hi = hi;
+        this.spots = numbers.length;
+    }
+
+    // create a ticket from the list of numbers selected on the bet card
+    public static Ticket of(List<Integer> numbers) {
+        int[] selected = new int[numbers.size()];
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = numbers.get(i);
+        }
+        return new Ticket(selected);
+    }
+
+    // check whether a number is on the ticket
+    public boolean contains(int number) {
+        return number >= KenoBits.MIN_NUMBER && number <= KenoBits.MAX_NUMBER && KenoBits.contains(lo, hi, number);
+    }
+
+    /**
+     * Getters
+     */
+    public long getLow() {
+        return lo;
+    }
+
+    public long getHigh() {
+        return hi;
+    }
+
+    public int getSpots() {
+        return spots;
+    }
+}
@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**
+ * A columnar batch of tickets for bulk settlement. Each ticket is one index across
+ * parallel primitive arrays: the two bitset words (see KenoBits), the spot count, the number of
+ * draws it is played for and the wager in cents. A batch is reused across draws; clear() keeps the arrays and only
+ * resets the size.
+ */
+public class TicketBatch {
+    long[] low;
+    long[] high;
+    int[] spots;
+    int[] draws;
+    long[] wagers;
+    private int size;
+
+    /**
+     * Constructor for TicketBatch
+     * @param capacity the number of tickets to make room for up front.
+     */
+    public TicketBatch(int capacity) {
+        low = new long[capacity];
+        high = new long[capacity];
+        spots = new int[capacity];
+        draws = new int[capacity];
+        wagers = new long[capacity];
+    }
+
+    /**
+     * Adds a ticket to the batch.
+     * @param ticket the ticket.
+     * @param wager the amount wagered, in cents.
+     * @return the index of the ticket in the batch.
+     */
+    public int add(Ticket ticket, long wager) {
+        return add(ticket.getLow(), ticket.getHigh(), ticket.getSpots(), wager);
+    }
+
+    /**
+     * Adds a single-draw ticket given in bitset form to the batch.
+     * @return the index of the ticket in the batch.
+     */
+    public int add(long low, long high, int spots, long wager) {
+        return add(low, high, spots, 1, wager);
+    }
+
+    /**
+     * Adds a ticket given in bitset form to the batch. Settlement trusts every ticket in a batch,
+     * so the ticket is checked here: its numbers must be in 1..80, spots must be their count and
+     * at most Paytable.MAX_SPOTS, draws at least 1 and the wager not negative. Untrusted input can
+     * be screened with TicketValidator first to get an error code instead of an exception.
+     * @return the index of the ticket in the batch.
+     */
+    public int add(long low, long high, int spots, int draws, long wager) {
+        if ((high & ~KenoBits.HIGH_MASK) != 0) {
+            throw new IllegalArgumentException("Ticket has numbers above " + KenoBits.MAX_NUMBER);
+        }
+        if (spots != KenoBits.count(low, high) || spots > Paytable.MAX_SPOTS) {
+            throw new IllegalArgumentException("Ticket declares " + spots + " spots but has " + KenoBits.count(low, high) + " numbers");
+        }
+        if (draws < 1 || wager < 0) {
+            throw new IllegalArgumentException("Ticket cannot be played for " + draws + " draws with wager " + wager);
+        }
+        if (size == this.low.length) {
+            grow();
+        }
+        this.low[size] = low;
+        this.high[size] = high;
+        this.spots[size] = spots;
+        this.draws[size] = draws;
+        this.wagers[size] = wager;
+        return size++;
+    }
+
+    // remove a ticket by moving the last ticket into its place, so indices after it are not shifted
+    void swapRemove(int index) {
+        int last = --size;
+        low[index] = low[last];
+        high[index] = high[last];
+        spots[index] = spots[last];
+        draws[index] = draws[last];
+        wagers[index] = wagers[last];
+    }
+
+    // empty the batch, keeping its arrays for reuse
+    public void clear() {
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, low.length * 2);
+        low = Arrays.copyOf(low, capacity);
+        high = Arrays.copyOf(high, capacity);
+        spots = Arrays.copyOf(spots, capacity);
+        draws = Arrays.copyOf(draws, capacity);
+        wagers = Arrays.copyOf(wagers, capacity);
+    }
+
+    /**
+     * Getters
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getLow(int index) {
+        return low[index];
+    }
+
+    public long getHigh(int index) {
+        return high[index];
+    }
+
+    public int getSpots(int index) {
+        return spots[index];
+    }
+
+    public int getDraws(int index) {
+        return draws[index];
+    }
+
+    public long getWager(int index) {
+        return wagers[index];
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of the tickets played on each draw, for replay. The file is a KenoCodec
+ * header followed by one record per ticket: the long id of the draw it was played on and the
+ * ticket in KenoCodec format. Records are buffered and written in large blocks.
+ *
+ * Tickets are appended in draw id order, the same order as the DrawJournal, so a Reader can walk
+ * the log alongside the journal and hand out one draw's tickets at a time.
+ */
+public class TicketLog implements Closeable {
+    static final int RECORD_BYTES = 8 + KenoCodec.TICKET_BYTES;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+    private long lastDrawId = Long.MIN_VALUE;
+
+    /**
+     * Creates a ticket log, replacing any existing file.
+     * @param path the file to write.
+     */
+    public TicketLog(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        KenoCodec.writeHeader(block);
+    }
+
+    /**
+     * Appends every ticket in a batch as played on the given draw.
+     * @param drawId the id of the draw.
+     * @param batch the tickets.
+     * @throws IllegalArgumentException if drawId is before a draw already in the log.
+     */
+    public void append(long drawId, TicketBatch batch) throws IOException {
+        if (drawId < lastDrawId) {
+            throw new IllegalArgumentException("Tickets for draw " + drawId + " appended after draw " + lastDrawId);
+        }
+        lastDrawId = drawId;
+        for (int i = 0; i < batch.size(); i++) {
+            if (block.remaining() < RECORD_BYTES) {
+                writeBlock();
+            }
+            block.putLong(drawId);
+            KenoCodec.encodeTicket(batch, i, block);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeBlock();
+        channel.close();
+    }
+
+    private void writeBlock() throws IOException {
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+    }
+
+    /**
+     * Reads a ticket log one draw at a time, in draw id order. Every ticket goes through a
+     * TicketValidator on the way in; rejected tickets, and tickets for a draw that was never asked
+     * for, are skipped and counted. The file is read through one reused block buffer, the same
+     * size as the writer's, so a log of any size is read in constant memory.
+     */
+    public static class Reader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        private final TicketValidator validator;
+        private long skipped;
+
+        /**
+         * Opens a ticket log for reading.
+         * @param path the file to read.
+         * @param validator checks every ticket read.
+         */
+        public Reader(Path path, TicketValidator validator) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.validator = validator;
+            block.limit(0);
+            if (!fill(KenoCodec.HEADER_BYTES)) {
+                channel.close();
+                throw new IllegalArgumentException("Not a Keno stream, too short: " + path);
+            }
+            KenoCodec.readHeader(block);
+        }
+
+        /**
+         * Reads the tickets played on a draw. Draw ids must be asked for in increasing order.
+         * @param drawId the id of the draw.
+         * @param batch cleared, then receives the draw's valid tickets.
+         * @return the number of tickets read into the batch.
+         */
+        public int read(long drawId, TicketBatch batch) throws IOException {
+            batch.clear();
+            while (fill(RECORD_BYTES)) {
+                long recordDrawId = block.getLong(block.position());
+                if (recordDrawId > drawId) {
+                    break;
+                }
+                block.position(block.position() + 8);
+                if (recordDrawId < drawId) {
+                    block.position(block.position() + KenoCodec.TICKET_BYTES);
+                    skipped++;
+                } else if (KenoCodec.decodeTicket(block, batch, validator) != TicketValidator.OK) {
+                    skipped++;
+                }
+            }
+            return batch.size();
+        }
+
+        // count every ticket not read yet as skipped, for tickets after the last draw asked for
+        public void skipRemaining() throws IOException {
+            long remaining = block.remaining() + channel.size() - channel.position();
+            skipped += remaining / RECORD_BYTES;
+            channel.position(channel.size());
+            block.limit(0);
+        }
+
+        // the number of tickets skipped so far
+        public long getSkipped() {
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // make at least the given number of bytes readable in the block, false at the end of the file
+        private boolean fill(int bytes) throws IOException {
+            if (block.remaining() >= bytes) {
+                return true;
+            }
+            block.compact();
+            while (block.hasRemaining() && channel.read(block) >= 0) {
+                // keep reading until the block is full or the file ends
+            }
+            block.flip();
+            return block.remaining() >= bytes;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Settles a whole TicketBatch against one draw in a single pass over its primitive
+ * columns. Per ticket, matches are two popcounts and the payout is one Paytable lookup times the
+ * wager, so settling costs no objects however many tickets there are.
+ *
+ * Payouts use the same semantics as KenoGame.calculateWinnings: the paytable prize is per $1, and
+ * wagers and payouts are in cents. Payouts and totals use Money's exact arithmetic, so an overflow
+ * fails the settlement with an ArithmeticException instead of paying a wrapped amount.
+ *
+ * Settlement can also fill a SettlementHistogram of prize tiers in the same pass, and large
+ * batches can be settled across a fork/join pool.
+ */
+public class TicketSettler {
+    private static final int THRESHOLD = 16 * 1024;
+
+    private final Paytable paytable;
+
+    /**
+     * @param paytable the prizes to pay out.
+     */
+    public TicketSettler(Paytable paytable) {
+        this.paytable = paytable;
+    }
+
+    /**
+     * Settles every ticket in the batch against the draw.
+     * @param draw the draw.
+     * @param batch the tickets; every spot count must be in 0..10.
+     * @param result filled with the matches and payout of each ticket.
+     */
+    public void settle(Draw draw, TicketBatch batch, SettlementResult result) {
+        result.reset(batch.size());
+        result.totalPayout = settle(draw, batch, result, null, 0, batch.size());
+    }
+
+    /**
+     * Settles every ticket in the batch against the draw, adding each ticket to its prize tier
+     * in the histogram in the same pass.
+     * @param draw the draw.
+     * @param batch the tickets; every spot count must be in 0..10.
+     * @param result filled with the matches and payout of each ticket.
+     * @param histogram the tiers to add to; clear it first to get this draw alone.
+     */
+    public void settle(Draw draw, TicketBatch batch, SettlementResult result, SettlementHistogram histogram) {
+        result.reset(batch.size());
+        result.totalPayout = settle(draw, batch, result, histogram, 0, batch.size());
+    }
+
+    /**
+     * Settles a large batch across the threads of a fork/join pool. Every worker fills its own
+     * range of the result and its own histogram, and the histograms are merged as the workers join.
+     * @param pool the pool to settle on.
+     * @param draw the draw.
+     * @param batch the tickets; every spot count must be in 0..10.
+     * @param result filled with the matches and payout of each ticket.
+     * @param histogram the tiers to add to; clear it first to get this draw alone.
+     */
+    public void settle(ForkJoinPool pool, Draw draw, TicketBatch batch, SettlementResult result, SettlementHistogram histogram) {
+        result.reset(batch.size());
+        SettlementHistogram merged = pool.invoke(new Range(draw, batch, result, 0, batch.size()));
+        histogram.merge(merged);
+        result.totalPayout = merged.getTotalPayout();
+    }
+
+    // settles tickets from..to, returning their total payout
+    private long settle(Draw draw, TicketBatch batch, SettlementResult result, SettlementHistogram histogram, int from, int to) {
+        long drawLow = draw.getLow();
+        long drawHigh = draw.getHigh();
+        long[] low = batch.low;
+        long[] high = batch.high;
+        int[] spots = batch.spots;
+        long[] wagers = batch.wagers;
+        int[] matches = result.matches;
+        long[] payouts = result.payouts;
+
+        long total = 0;
+        if (histogram == null) {
+            for (int i = from; i < to; i++) {
+                int hits = KenoBits.matches(drawLow, drawHigh, low[i], high[i]);
+                long payout = Money.multiply(paytable.payout(spots[i], hits), wagers[i]);
+                matches[i] = hits;
+                payouts[i] = payout;
+                total = Money.add(total, payout);
+            }
+            return total;
+        }
+
+        long[] tierCounts = histogram.counts;
+        long[] tierPayouts = histogram.payouts;
+        for (int i = from; i < to; i++) {
+            int hits = KenoBits.matches(drawLow, drawHigh, low[i], high[i]);
+            long payout = Money.multiply(paytable.payout(spots[i], hits), wagers[i]);
+            matches[i] = hits;
+            payouts[i] = payout;
+            total = Money.add(total, payout);
+            int tier = spots[i] * Paytable.STRIDE + hits;
+            tierCounts[tier]++;
+            tierPayouts[tier] = Money.add(tierPayouts[tier], payout);
+        }
+        return total;
+    }
+
+    // settles a range of tickets into a histogram of its own, splitting until the range is small enough
+    @SuppressWarnings("serial")
+    private final class Range extends RecursiveTask<SettlementHistogram> {
+        private final Draw draw;
+        private final TicketBatch batch;
+        private final SettlementResult result;
+        private final int from;
+        private final int to;
+
+        Range(Draw draw, TicketBatch batch, SettlementResult result, int from, int to) {
+            this.draw = draw;
+            this.batch = batch;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SettlementHistogram compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                Range right = new Range(draw, batch, result, middle, to);
+                right.fork();
+                SettlementHistogram left = new Range(draw, batch, result, from, middle).compute();
+                left.merge(right.join());
+                return left;
+            }
+            SettlementHistogram histogram = new SettlementHistogram();
+            settle(draw, batch, result, histogram, from, to);
+            return histogram;
+        }
+    }
+
+    public Paytable getPaytable() {
+        return paytable;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Validates tickets at ingest, headless and in bulk. A whole TicketBatch is checked
+ * in one pass over its columns and every ticket gets a one-byte error code, so a malformed bulk
+ * submission is rejected at the speed it is read. Checks run on the bitset encoding:
+ *
+ * BAD_NUMBER:      a number outside 1..80 (a bit set above 80)
+ * SPOT_MISMATCH:   the number of distinct numbers differs from the declared spots, which is also
+ *                  how duplicates show up once a selection is a set
+ * NO_PAYTABLE_ROW: the paytable pays nothing for this many spots
+ * BAD_DRAWS:       the draw count is outside 1..maxDraws
+ * BAD_WAGER:       the wager in cents is outside minWager..maxWager
+ *
+ * When a ticket has several problems the first in that order is reported. TicketBatch.add refuses
+ * tickets that would give BAD_NUMBER or SPOT_MISMATCH, so raw input such as a decoded record is
+ * screened with validate(low, high, spots, draws, wager) before it is added to a batch.
+ */
+public class TicketValidator {
+    public static final byte OK = 0;
+    public static final byte BAD_NUMBER = 1;
+    public static final byte SPOT_MISMATCH = 2;
+    public static final byte NO_PAYTABLE_ROW = 3;
+    public static final byte BAD_DRAWS = 4;
+    public static final byte BAD_WAGER = 5;
+
+    private final boolean[] payingSpots = new boolean[Paytable.STRIDE];
+    private final int maxDraws;
+    private final long minWager;
+    private final long maxWager;
+
+    /**
+     * Constructor for TicketValidator
+     * @param paytable the paytable tickets must have a row in.
+     * @param maxDraws the most consecutive draws a ticket may be played for.
+     * @param minWager the smallest wager, in cents.
+     * @param maxWager the largest wager, in cents.
+     */
+    public TicketValidator(Paytable paytable, int maxDraws, long minWager, long maxWager) {
+        for (int spots = 0; spots <= Paytable.MAX_SPOTS; spots++) {
+            payingSpots[spots] = paytable.hasRow(spots);
+        }
+        this.maxDraws = maxDraws;
+        this.minWager = minWager;
+        this.maxWager = maxWager;
+    }
+
+    /**
+     * Validates every ticket in a batch.
+     * @param batch the tickets.
+     * @param errors receives the error code of each ticket, OK for valid ones.
+     * @return the number of invalid tickets.
+     */
+    public int validate(TicketBatch batch, byte[] errors) {
+        int size = batch.size();
+        if (errors.length < size) {
+            throw new IllegalArgumentException("Error array too small for " + size + " tickets");
+        }
+        long[] low = batch.low;
+        long[] high = batch.high;
+        int[] spots = batch.spots;
+        int[] draws = batch.draws;
+        long[] wagers = batch.wagers;
+
+        int rejected = 0;
+        for (int i = 0; i < size; i++) {
+            byte error = validate(low[i], high[i], spots[i], draws[i], wagers[i]);
+            errors[i] = error;
+            if (error != OK) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Validates a single ticket.
+     * @return the error code, OK if the ticket is valid.
+     */
+    public byte validate(long low, long high, int spots, int draws, long wager) {
+        if ((high & ~KenoBits.HIGH_MASK) != 0) {
+            return BAD_NUMBER;
+        }
+        if (KenoBits.count(low, high) != spots) {
+            return SPOT_MISMATCH;
+        }
+        if (spots > Paytable.MAX_SPOTS || !payingSpots[spots]) {
+            return NO_PAYTABLE_ROW;
+        }
+        if (draws < 1 || draws > maxDraws) {
+            return BAD_DRAWS;
+        }
+        if (wager < minWager || wager > maxWager) {
+            return BAD_WAGER;
+        }
+        return OK;
+    }
+
+    // a message for an error code
+    public static String describe(byte error) {
+        switch (error) {
+            case OK:
+                return "OK";
+            case BAD_NUMBER:
+                return "Numbers must be between 1 and " + KenoBits.MAX_NUMBER;
+            case SPOT_MISMATCH:
+                return "The numbers selected do not match the number of spots";
+            case NO_PAYTABLE_ROW:
+                return "No prizes are offered for this number of spots";
+            case BAD_DRAWS:
+                return "The number of draws is out of range";
+            case BAD_WAGER:
+                return "The wager is out of range";
+            default:
+                return "Unknown error " + error;
+        }
+    }
+}
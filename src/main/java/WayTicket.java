@@ -0,0 +1,189 @@
+import java.util.Arrays;
+
+/**
+ * A way ticket: the player marks groups of numbers, and every combination of
+ * groupsPerWay groups is played as its own sub-ticket (a "way"). A king ticket also has king
+ * numbers, which are added to every way. Three groups of three played two at a time is three
+ * 6-spot ways; with one king number it is three 7-spot ways.
+ *
+ * The ways are never expanded into a list. A way is identified by its rank, and unrank() maps a
+ * rank to its groups through the combinatorial number system, in the same (colex) order that
+ * settle() walks them. Settling counts the hits in each group and the kings once, and each way's
+ * hits are then the sum of its groups' hits, so the cost per way is a few additions and one
+ * paytable lookup however many numbers are on the slip.
+ */
+public final class WayTicket {
+    public static final int MAX_GROUPS = 20;
+
+    private final long[] groupLow;
+    private final long[] groupHigh;
+    private final int[] groupSpots;
+    private final long kingLow;
+    private final long kingHigh;
+    private final int kingSpots;
+    private final int groupsPerWay;
+    private final long ways;
+
+    /**
+     * Creates a way ticket.
+     * @param groups the groups of numbers, at most MAX_GROUPS and sharing no numbers.
+     * @param groupsPerWay how many groups each way combines.
+     * @param kings the king numbers added to every way, or null for a plain way ticket.
+     */
+    public WayTicket(Ticket[] groups, int groupsPerWay, Ticket kings) {
+        if (groups.length > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " groups are allowed");
+        }
+        if (groupsPerWay < 0 || groupsPerWay > groups.length) {
+            throw new IllegalArgumentException("Cannot combine " + groupsPerWay + " of " + groups.length + " groups");
+        }
+        groupLow = new long[groups.length];
+        groupHigh = new long[groups.length];
+        groupSpots = new int[groups.length];
+        long usedLow = kings == null ? 0 : kings.getLow();
+        long usedHigh = kings == null ? 0 : kings.getHigh();
+        for (int i = 0; i < groups.length; i++) {
+            Ticket group = groups[i];
+            if (group.getSpots() == 0) {
+                throw new IllegalArgumentException("Group " + i + " is empty");
+            }
+            if (KenoBits.matches(usedLow, usedHigh, group.getLow(), group.getHigh()) != 0) {
+                throw new IllegalArgumentException("Group " + i + " shares numbers with another group or the kings");
+            }
+            groupLow[i] = group.getLow();
+            groupHigh[i] = group.getHigh();
+            groupSpots[i] = group.getSpots();
+            usedLow |= group.getLow();
+            usedHigh |= group.getHigh();
+        }
+        this.kingLow = kings == null ? 0 : kings.getLow();
+        this.kingHigh = kings == null ? 0 : kings.getHigh();
+        this.kingSpots = kings == null ? 0 : kings.getSpots();
+        this.groupsPerWay = groupsPerWay;
+        this.ways = KenoOdds.binomial(groups.length, groupsPerWay);
+
+        // the largest way is the kings plus the largest groups
+        int[] sizes = groupSpots.clone();
+        Arrays.sort(sizes);
+        int largest = kingSpots;
+        for (int i = 0; i < groupsPerWay; i++) {
+            largest += sizes[sizes.length - 1 - i];
+        }
+        if (largest > Paytable.MAX_SPOTS) {
+            throw new IllegalArgumentException("A way can have up to " + largest + " spots, the most is " + Paytable.MAX_SPOTS);
+        }
+    }
+
+    /**
+     * Finds the groups of a way.
+     * @param rank the way, 0..getWays()-1.
+     * @param groups receives the groupsPerWay group indices, in increasing order.
+     */
+    public void unrank(long rank, int[] groups) {
+        if (rank < 0 || rank >= ways) {
+            throw new IllegalArgumentException("Way " + rank + " out of range 0.." + (ways - 1));
+        }
+        int candidate = groupLow.length;
+        for (int i = groupsPerWay; i >= 1; i--) {
+            // the largest group index c with C(c, i) <= rank
+            candidate--;
+            while (KenoOdds.binomial(candidate, i) > rank) {
+                candidate--;
+            }
+            groups[i - 1] = candidate;
+            rank -= KenoOdds.binomial(candidate, i);
+        }
+    }
+
+    // build one way as an ordinary ticket, for display
+    public Ticket way(long rank) {
+        int[] groups = new int[groupsPerWay];
+        unrank(rank, groups);
+        long low = kingLow;
+        long high = kingHigh;
+        for (int group : groups) {
+            low |= groupLow[group];
+            high |= groupHigh[group];
+        }
+        int[] numbers = new int[KenoBits.count(low, high)];
+        int count = 0;
+        for (int number = KenoBits.MIN_NUMBER; number <= KenoBits.MAX_NUMBER; number++) {
+            if (KenoBits.contains(low, high, number)) {
+                numbers[count++] = number;
+            }
+        }
+        return new Ticket(numbers);
+    }
+
+    /**
+     * Settles every way against a draw.
+     * @param draw the draw.
+     * @param paytable the prizes per $1.
+     * @param wagerPerWay the wager on each way, in cents.
+     * @param histogram the prize tiers to add every way to, or null.
+     * @return the total payout of all ways, in cents.
+     */
+    public long settle(Draw draw, Paytable paytable, long wagerPerWay, SettlementHistogram histogram) {
+        long drawLow = draw.getLow();
+        long drawHigh = draw.getHigh();
+        int groupCount = groupLow.length;
+        int[] groupHits = new int[groupCount];
+        for (int i = 0; i < groupCount; i++) {
+            groupHits[i] = KenoBits.matches(drawLow, drawHigh, groupLow[i], groupHigh[i]);
+        }
+        int kingHits = KenoBits.matches(drawLow, drawHigh, kingLow, kingHigh);
+
+        if (groupsPerWay == 0) {
+            return settleWay(paytable, kingSpots, kingHits, wagerPerWay, histogram);
+        }
+
+        // walk the combinations as bit masks in increasing order (Gosper's hack), which is colex order
+        long total = 0;
+        int mask = (1 << groupsPerWay) - 1;
+        int end = 1 << groupCount;
+        while (mask < end) {
+            int spots = kingSpots;
+            int hits = kingHits;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int group = Integer.numberOfTrailingZeros(bits);
+                spots += groupSpots[group];
+                hits += groupHits[group];
+            }
+            total = Money.add(total, settleWay(paytable, spots, hits, wagerPerWay, histogram));
+
+            int lowest = mask & -mask;
+            int ripple = mask + lowest;
+            mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+        }
+        return total;
+    }
+
+    private static long settleWay(Paytable paytable, int spots, int hits, long wager, SettlementHistogram histogram) {
+        long payout = Money.multiply(paytable.payout(spots, hits), wager);
+        if (histogram != null) {
+            int tier = spots * Paytable.STRIDE + hits;
+            histogram.counts[tier]++;
+            histogram.payouts[tier] = Money.add(histogram.payouts[tier], payout);
+        }
+        return payout;
+    }
+
+    /**
+     * Getters
+     */
+    public long getWays() {
+        return ways;
+    }
+
+    public int getGroupCount() {
+        return groupLow.length;
+    }
+
+    public int getGroupsPerWay() {
+        return groupsPerWay;
+    }
+
+    public int getKingSpots() {
+        return kingSpots;
+    }
+}
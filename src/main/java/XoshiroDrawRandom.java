@@ -0,0 +1,97 @@
+/**
+ * A DrawRandomSource implementing xoshiro256** (Blackman and Vigna). The 256-bit
+ * state is seeded from a single long through SplitMix64. jump() advances the stream by 2^128
+ * steps, so split() hands the current position to the new stream and jumps itself ahead:
+ * up to 2^128 streams that can never overlap.
+ */
+public class XoshiroDrawRandom implements DrawRandomSource {
+    private static final long[] JUMP = {
+            0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+    };
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * Constructor for XoshiroDrawRandom, seeded from the system clock.
+     */
+    public XoshiroDrawRandom() {
+        this(System.nanoTime() ^ Thread.currentThread().getId() * 0x9e3779b97f4a7c15L);
+    }
+
+    /**
+     * @param seed the seed, expanded to 256 bits with SplitMix64.
+     */
+    public XoshiroDrawRandom(long seed) {
+        s0 = splitMix64(seed += 0x9e3779b97f4a7c15L);
+        s1 = splitMix64(seed += 0x9e3779b97f4a7c15L);
+        s2 = splitMix64(seed += 0x9e3779b97f4a7c15L);
+        s3 = splitMix64(seed + 0x9e3779b97f4a7c15L);
+    }
+
+    private XoshiroDrawRandom(long s0, long s1, long s2, long s3) {
+        this.s0 = s0;
+        this.s1 = s1;
+        this.s2 = s2;
+        this.s3 = s3;
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /**
+     * Advances this stream by 2^128 steps.
+     */
+    public void jump() {
+        long t0 = 0;
+        long t1 = 0;
+        long t2 = 0;
+        long t3 = 0;
+        for (long word : JUMP) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((word & (1L << bit)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                    t2 ^= s2;
+                    t3 ^= s3;
+                }
+                nextLong();
+            }
+        }
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+
+    @Override
+    public DrawRandomSource split() {
+        XoshiroDrawRandom stream = new XoshiroDrawRandom(s0, s1, s2, s3);
+        jump();
+        return stream;
+    }
+
+    // the SplitMix64 finaliser, used to spread a seed over the state
+    static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public byte provenance() {
+        return PROVENANCE_XOSHIRO;
+    }
+}
@@ -1,8 +1,30 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author: Mykola Turchak
@@ -394,4 +416,766 @@ public class MyTest {
 		assertEquals(9, kenoGame.getDrawnNumbers().get(8).intValue());
 		assertEquals(10, kenoGame.getDrawnNumbers().get(9).intValue());
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("Test Draw and Ticket bitset match counting")
+	public void testDrawMatchesTicket() {
+		Draw draw = new Draw(new int[]{1, 5, 10, 20, 30, 40, 50, 60, 63, 64, 65, 66, 70, 71, 72, 73, 74, 75, 79, 80});
+		assertEquals(0, draw.matches(new Ticket(2, 3, 4)));
+		assertEquals(4, draw.matches(new Ticket(64, 65, 80, 1)));
+		assertEquals(10, draw.matches(new Ticket(1, 5, 10, 20, 30, 40, 50, 60, 79, 80)));
+		assertEquals(64, draw.numberAt(9));
+		assertEquals(20, draw.toList().size());
+	}
+
+	@Test
+	@DisplayName("Test Draw and Ticket reject bad numbers")
+	public void testDrawRejectsBadNumbers() {
+		assertThrows(IllegalArgumentException.class, () -> new Ticket(0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new Ticket(81));
+		assertThrows(IllegalArgumentException.class, () -> new Ticket(7, 7));
+		assertThrows(IllegalArgumentException.class, () -> new Draw(new int[]{1, 2, 3}));
+	}
+
+	@Test
+	@DisplayName("Test calculateMatchedNumbers with a Ticket")
+	public void testCalculateMatchedNumbersTicket() {
+		kenoGame.playDrawing(Arrays.asList(1, 2, 3));
+		int[] drawn = new int[20];
+		for (int i = 0; i < drawn.length; i++) {
+			drawn[i] = kenoGame.getDrawnNumbers().get(i);
+		}
+		assertEquals(20, kenoGame.calculateMatchedNumbers(new Ticket(drawn)));
+		assertEquals(kenoGame.calculateMatchedNumbers(Arrays.asList(1, 2, 3)), kenoGame.calculateMatchedNumbers(new Ticket(1, 2, 3)));
+	}
+
+	@Test
+	@DisplayName("Test DrawGenerator draws 20 distinct numbers in range")
+	public void testDrawGenerator() {
+		DrawGenerator generator = new DrawGenerator();
+		int[] numbers = new int[25];
+		long[] bits = new long[2];
+		for (int round = 0; round < 1000; round++) {
+			generator.draw(numbers, 5);
+			long lo = 0;
+			long hi = 0;
+			for (int i = 5; i < 25; i++) {
+				assertTrue(numbers[i] >= 1 && numbers[i] <= 80);
+				lo |= KenoBits.lowBit(numbers[i]);
+				hi |= KenoBits.highBit(numbers[i]);
+			}
+			assertEquals(20, KenoBits.count(lo, hi));
+
+			generator.drawBits(bits, 0);
+			assertEquals(20, KenoBits.count(bits[0], bits[1]));
+			assertEquals(0, bits[1] & ~KenoBits.HIGH_MASK);
+		}
+	}
+
+	@Test
+	@DisplayName("Test quick drawings match the bitset draw path")
+	public void testQuickDrawing() {
+		KenoGame game = new KenoGame(Paytable.STANDARD, new XoshiroDrawRandom(31));
+		DrawGenerator generator = new DrawGenerator(new XoshiroDrawRandom(31));
+		Ticket ticket = new Ticket(1, 2, 3, 4, 5, 6, 7, 8, 65, 80);
+		long[] bits = new long[2];
+		for (int i = 0; i < 100; i++) {
+			generator.drawBits(bits, 0);
+			assertEquals(KenoBits.matches(bits[0], bits[1], ticket.getLow(), ticket.getHigh()), game.playQuickDrawing(ticket));
+		}
+
+		// The last quick drawing is built on demand, numbers in increasing order
+		Draw draw = game.getDraw();
+		assertEquals(bits[0], draw.getLow());
+		assertEquals(bits[1], draw.getHigh());
+		List<Integer> sorted = new ArrayList<>(game.getDrawnNumbers());
+		Collections.sort(sorted);
+		assertEquals(sorted, game.getDrawnNumbers());
+		assertTrue(draw == game.getDraw());
+	}
+
+	@Test
+	@DisplayName("Test KenoGame with a custom Paytable")
+	public void testCustomPaytable() {
+		Paytable paytable = new Paytable(new long[][]{{}, {}, {0, 1, 9}});
+		KenoGame game = new KenoGame(paytable);
+		game.setNumSpots(2);
+		assertEquals(0, game.calculateWinnings(0));
+		assertEquals(9, game.calculateWinnings(2));
+		game.setNumSpots(4);
+		assertEquals(0, game.calculateWinnings(4));
+		assertTrue(paytable.hasRow(2));
+		assertTrue(!paytable.hasRow(4));
+		assertTrue(Paytable.STANDARD.hasRow(8));
+		assertThrows(IllegalArgumentException.class, () -> new Paytable(new long[][]{{1, 2}}));
+		assertThrows(IllegalArgumentException.class, () -> Paytable.STANDARD.payout(9, 11));
+		assertThrows(IllegalArgumentException.class, () -> Paytable.STANDARD.payout(4, 5));
+		assertThrows(IllegalArgumentException.class, () -> Paytable.STANDARD.payout(11, 0));
+	}
+
+	@Test
+	@DisplayName("Test DrawRandomSource implementations")
+	public void testDrawRandomSources() {
+		// Seeded xoshiro streams are reproducible and splits do not repeat the parent
+		XoshiroDrawRandom first = new XoshiroDrawRandom(42);
+		XoshiroDrawRandom second = new XoshiroDrawRandom(42);
+		assertEquals(first.nextLong(), second.nextLong());
+		DrawRandomSource split = first.split();
+		assertTrue(split.nextLong() != first.nextLong());
+
+		DrawRandomSource[] sources = {new SplittableDrawRandom(7), new XoshiroDrawRandom(7), new SecureDrawRandom()};
+		for (DrawRandomSource source : sources) {
+			for (int i = 0; i < 10000; i++) {
+				int value = source.nextInt(80 - i % 20);
+				assertTrue(value >= 0 && value < 80 - i % 20);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Test DrawRandomStreams gives each thread its own stream")
+	public void testDrawRandomStreams() throws InterruptedException {
+		DrawRandomStreams streams = new DrawRandomStreams(new XoshiroDrawRandom(1));
+		DrawRandomSource[] other = new DrawRandomSource[1];
+		Thread thread = new Thread(() -> other[0] = streams.current());
+		thread.start();
+		thread.join();
+		assertTrue(streams.current() == streams.current());
+		assertTrue(streams.current() != other[0]);
+	}
+
+	@Test
+	@DisplayName("Test settling a TicketBatch against a draw")
+	public void testSettleBatch() {
+		Draw draw = new Draw(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+		TicketBatch batch = new TicketBatch(1);
+		batch.add(new Ticket(1), 100);
+		batch.add(new Ticket(1, 2, 3, 80), 200);
+		batch.add(new Ticket(21, 22, 23, 24, 25, 26, 27, 28, 29, 30), 100);
+		batch.add(new Ticket(1, 2, 3, 4, 5, 6, 7, 8), 100);
+
+		SettlementResult result = kenoGame.settle(draw, batch);
+		assertEquals(4, result.size());
+		assertEquals(1, result.getMatches(0));
+		assertEquals(200, result.getPayout(0));
+		assertEquals(3, result.getMatches(1));
+		assertEquals(1000, result.getPayout(1));
+		assertEquals(0, result.getMatches(2));
+		assertEquals(500, result.getPayout(2));
+		assertEquals(1000000, result.getPayout(3));
+		assertEquals(200 + 1000 + 500 + 1000000, result.getTotalPayout());
+	}
+
+	@Test
+	@DisplayName("Test RtpSimulator converges on the 1 spot game")
+	public void testRtpSimulator() {
+		RtpSimulator simulator = new RtpSimulator(Paytable.STANDARD, new XoshiroDrawRandom(3), 2);
+		int[] rounds = new int[1];
+		SimulationReport report = simulator.run(400_000, 4, progress -> rounds[0]++);
+		simulator.shutdown();
+
+		assertEquals(4, rounds[0]);
+		assertEquals(400_000, report.getDraws());
+		// A 1 spot ticket hits a quarter of the time and pays 2, so the RTP is 0.5
+		assertEquals(0.25, report.getHitFrequency(1), 0.01);
+		assertEquals(0.5, report.getRtp(1), 4 * report.getRtpConfidence(1));
+		long total = 0;
+		for (int matches = 0; matches <= 8; matches++) {
+			total += report.getCount(8, matches);
+		}
+		assertEquals(400_000, total);
+	}
+
+	@Test
+	@DisplayName("Test KenoOdds exact odds match the published odds")
+	public void testKenoOdds() {
+		assertEquals(4.00, KenoOdds.forSpots(1, Paytable.STANDARD).getHitOdds(), 0.005);
+		assertEquals(3.86, KenoOdds.forSpots(4, Paytable.STANDARD).getHitOdds(), 0.005);
+		assertEquals(9.77, KenoOdds.forSpots(8, Paytable.STANDARD).getHitOdds(), 0.005);
+		assertEquals(9.05, KenoOdds.forSpots(10, Paytable.STANDARD).getHitOdds(), 0.005);
+		assertEquals(0.5, KenoOdds.forSpots(1, Paytable.STANDARD).getRtp(), 1e-12);
+
+		for (int spots = 0; spots <= 10; spots++) {
+			double total = 0;
+			for (int matches = 0; matches <= spots; matches++) {
+				total += KenoOdds.probability(spots, matches);
+			}
+			assertEquals(1.0, total, 1e-12);
+		}
+		assertTrue(KenoOdds.forSpots(8, Paytable.STANDARD) == KenoOdds.forSpots(8, Paytable.STANDARD));
+	}
+
+	@Test
+	@DisplayName("Test DrawGenerator.drawBatch packs draws and their order")
+	public void testDrawBatch() {
+		DrawGenerator generator = new DrawGenerator(new XoshiroDrawRandom(9));
+		long[] bits = new long[2 * 50];
+		byte[] order = new byte[20 * 50];
+		generator.drawBatch(50, bits, order);
+		for (int draw = 0; draw < 50; draw++) {
+			long lo = 0;
+			long hi = 0;
+			for (int i = 0; i < 20; i++) {
+				lo |= KenoBits.lowBit(order[20 * draw + i]);
+				hi |= KenoBits.highBit(order[20 * draw + i]);
+			}
+			assertEquals(lo, bits[2 * draw]);
+			assertEquals(hi, bits[2 * draw + 1]);
+			assertEquals(20, KenoBits.count(lo, hi));
+		}
+		assertThrows(IllegalArgumentException.class, () -> generator.drawBatch(51, bits));
+	}
+
+	@Test
+	@DisplayName("Test concurrent play through SessionRegistry")
+	public void testSessionRegistryConcurrentPlay() throws InterruptedException {
+		SessionRegistry registry = new SessionRegistry(new KenoEngine(Paytable.STANDARD, new XoshiroDrawRandom(5)));
+		long[] ids = new long[8];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = registry.open().getId();
+		}
+
+		long[] paid = new long[4];
+		Thread[] threads = new Thread[paid.length];
+		for (int t = 0; t < threads.length; t++) {
+			int worker = t;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 5000; i++) {
+					paid[worker] += registry.play(ids[i % ids.length], new Ticket(1, 2, 3, 4), 100).getPayout();
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long draws = 0;
+		long winnings = 0;
+		for (long id : ids) {
+			draws += registry.get(id).getDraws();
+			winnings += registry.get(id).getTotalWinnings();
+			assertEquals(100 * registry.get(id).getDraws(), registry.get(id).getTotalWagered());
+		}
+		assertEquals(20000, draws);
+		assertEquals(paid[0] + paid[1] + paid[2] + paid[3], winnings);
+		assertThrows(IllegalArgumentException.class, () -> registry.play(-1, new Ticket(1), 100));
+	}
+
+	@Test
+	@DisplayName("Test KenoEngine serves many short-lived threads from its generator pool")
+	public void testKenoEngineShortLivedThreads() throws InterruptedException {
+		KenoEngine engine = KenoEngine.seeded(Paytable.STANDARD, 42, null);
+		DrawResult[] results = new DrawResult[200];
+		Thread[] threads = new Thread[results.length];
+		for (int t = 0; t < threads.length; t++) {
+			int request = t;
+			threads[t] = new Thread(() -> results[request] = engine.play(new Ticket(1, 2, 3, 4), 100));
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		SeededDraws expected = new SeededDraws(42);
+		List<Long> ids = new ArrayList<>();
+		for (DrawResult result : results) {
+			assertFalse(ids.contains(result.getDrawId()));
+			ids.add(result.getDrawId());
+			assertEquals(expected.draw(result.getDrawId()).toList(), result.getDraw().toList());
+		}
+	}
+
+	@Test
+	@DisplayName("Test Money arithmetic fails instead of overflowing")
+	public void testMoney() {
+		assertEquals(10000000, Money.ofDollars(100000));
+		assertEquals("$12.34", Money.format(1234));
+		assertEquals("-$0.05", Money.format(-5));
+		assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+
+		AtomicLong balance = new AtomicLong(Long.MAX_VALUE - 1);
+		assertEquals(Long.MAX_VALUE, Money.addAtomically(balance, 1));
+		assertThrows(ArithmeticException.class, () -> Money.addAtomically(balance, 1));
+		assertEquals(Long.MAX_VALUE, balance.get());
+
+		// Payouts and house totals fail rather than wrap
+		assertThrows(ArithmeticException.class, () -> Money.multiply(100000, Long.MAX_VALUE / 1000));
+		TicketBatch whale = new TicketBatch(1);
+		whale.add(new Ticket(1), Long.MAX_VALUE / 2 + 1);
+		Draw draw = new Draw(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+		assertThrows(ArithmeticException.class, () -> new TicketSettler(Paytable.STANDARD).settle(draw, whale, new SettlementResult(1)));
+		HouseLedger ledger = new HouseLedger(1);
+		ledger.record(Long.MAX_VALUE, 0);
+		assertThrows(ArithmeticException.class, () -> ledger.record(1, 0));
+		// a payout that overflows takes its wager back out, leaving the ledger as it was
+		HouseLedger paid = new HouseLedger(1);
+		paid.record(0, Long.MAX_VALUE);
+		assertThrows(ArithmeticException.class, () -> paid.record(7, 1));
+		assertEquals(0, paid.getWagered());
+		assertEquals(Long.MAX_VALUE, paid.getPaidOut());
+		assertEquals(1, paid.getTickets());
+		assertEquals(Long.MAX_VALUE, ledger.getWagered());
+		assertEquals(1, ledger.getTickets());
+		// with many cells the same overflow surfaces when the cells are summed
+		HouseLedger striped = new HouseLedger(64);
+		striped.record(Long.MAX_VALUE, 0);
+		assertThrows(ArithmeticException.class, () -> {
+			striped.record(Long.MAX_VALUE, 0);
+			striped.getWagered();
+		});
+
+		// The int total used to wrap after enough 10 spot jackpots
+		kenoGame.setTotalWinnings(Integer.MAX_VALUE);
+		kenoGame.addWinnings(100000);
+		assertEquals(Integer.MAX_VALUE + 100000L, kenoGame.getTotalWinnings());
+	}
+
+	@Test
+	@DisplayName("Test HouseLedger and session balances")
+	public void testHouseLedger() {
+		SessionRegistry registry = new SessionRegistry(new KenoEngine(Paytable.STANDARD, new XoshiroDrawRandom(11)));
+		GameSession session = registry.open();
+		long paid = 0;
+		for (int i = 0; i < 1000; i++) {
+			paid += registry.play(session.getId(), new Ticket(5), 100).getPayout();
+		}
+		assertEquals(100000, registry.getLedger().getWagered());
+		assertEquals(paid, registry.getLedger().getPaidOut());
+		assertEquals(1000, registry.getLedger().getTickets());
+		assertEquals(100000 - paid, registry.getLedger().getNet());
+		assertEquals(paid - 100000, session.getBalance());
+	}
+
+	@Test
+	@DisplayName("Test KenoServer session, ticket and balance endpoints")
+	public void testKenoServer() throws Exception {
+		KenoServer server = new KenoServer(new SessionRegistry(new KenoEngine(Paytable.STANDARD, new XoshiroDrawRandom(13))), 0);
+		server.start();
+		try {
+			String base = "http://127.0.0.1:" + server.getPort();
+			assertEquals("{\"session\":1}", request("POST", base + "/sessions", 201));
+			String ticket = request("POST", base + "/sessions/1/tickets?numbers=1,2,3,4&wager=100", 200);
+			assertTrue(ticket.startsWith("{\"draw\":1,\"numbers\":["));
+			assertTrue(request("GET", base + "/sessions/1/balance", 200).contains("\"wagered\":100"));
+			assertTrue(request("GET", base + "/draws/latest", 200).startsWith("{\"draw\":1,"));
+			request("GET", base + "/sessions/2/balance", 404);
+			request("POST", base + "/sessions/1/tickets?numbers=1,1&wager=100", 400);
+			request("POST", base + "/sessions/1/tickets?numbers=1,2&wager=100", 400);
+			request("POST", base + "/stats", 405);
+			request("DELETE", base + "/draws/latest", 405);
+			request("GET", base + "/sessions", 405);
+			request("GET", base + "/sessions/1/tickets?numbers=1,2,3,4&wager=100", 405);
+			request("POST", base + "/sessions/1/balance", 405);
+
+			// concurrent requests finish out of order, and the latest draw must end on the highest id
+			ExecutorService clients = Executors.newFixedThreadPool(8);
+			List<Future<String>> tickets = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				tickets.add(clients.submit(() -> request("POST", base + "/sessions/1/tickets?numbers=1,2,3,4&wager=100", 200)));
+			}
+			long highest = 0;
+			for (Future<String> response : tickets) {
+				String body = response.get();
+				highest = Math.max(highest, Long.parseLong(body.substring("{\"draw\":".length(), body.indexOf(','))));
+			}
+			clients.shutdown();
+			assertEquals(65, highest);
+			assertTrue(request("GET", base + "/draws/latest", 200).startsWith("{\"draw\":65,"));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	@DisplayName("Test KenoServer answers unexpected failures with 500")
+	public void testKenoServerInternalError() throws Exception {
+		DrawRandomSource broken = new DrawRandomSource() {
+			@Override
+			public long nextLong() {
+				throw new IllegalStateException("no entropy");
+			}
+
+			@Override
+			public DrawRandomSource split() {
+				return this;
+			}
+		};
+		KenoServer server = new KenoServer(new SessionRegistry(new KenoEngine(Paytable.STANDARD, broken)), 0);
+		server.start();
+		try {
+			String base = "http://127.0.0.1:" + server.getPort();
+			request("POST", base + "/sessions", 201);
+			assertTrue(request("POST", base + "/sessions/1/tickets?numbers=1,2,3,4&wager=100", 500).contains("no entropy"));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	// send a request and check its status, returning the body
+	private static String request(String method, String url, int expectedStatus) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod(method);
+		assertEquals(expectedStatus, connection.getResponseCode());
+		InputStream body = expectedStatus < 400 ? connection.getInputStream() : connection.getErrorStream();
+		try (InputStream in = body) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	@DisplayName("Test DrawJournal appends, rolls segments and resumes")
+	public void testDrawJournal(@TempDir Path directory) throws IOException {
+		KenoEngine engine;
+		try (DrawJournal journal = new DrawJournal(directory, 4)) {
+			engine = new KenoEngine(Paytable.STANDARD, new XoshiroDrawRandom(17), journal);
+			for (int i = 0; i < 6; i++) {
+				engine.play(new Ticket(1, 2, 3, 4), 100);
+			}
+		}
+		try (DrawJournal journal = new DrawJournal(directory, 4)) {
+			assertEquals(6, journal.getLastDrawId());
+			Draw draw = new Draw(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20});
+			assertThrows(IllegalArgumentException.class, () -> journal.append(6, 0, draw, DrawRandomSource.PROVENANCE_SECURE));
+			journal.append(7, 0, draw, DrawRandomSource.PROVENANCE_SECURE);
+		}
+		try (DrawJournal journal = new DrawJournal(directory, 4)) {
+			// the second segment holds 5..7, so an engine on the reopened journal carries on at 8
+			assertEquals(7, journal.getLastDrawId());
+			assertEquals(8, new KenoEngine(Paytable.STANDARD, new XoshiroDrawRandom(18), journal).play(new Ticket(1, 2, 3, 4), 100).getDrawId());
+		}
+
+		List<Long> ids = new ArrayList<>();
+		long count = DrawJournal.read(directory, (drawId, timestamp, draw, provenance) -> {
+			ids.add(drawId);
+			assertEquals(20, KenoBits.count(draw.getLow(), draw.getHigh()));
+			assertEquals(drawId == 7 ? DrawRandomSource.PROVENANCE_SECURE : DrawRandomSource.PROVENANCE_XOSHIRO, provenance);
+		});
+		assertEquals(8, count);
+		assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), ids);
+	}
+
+	@Test
+	@DisplayName("Test KenoCodec round-trips draws and tickets")
+	public void testKenoCodec() {
+		Draw draw = new DrawGenerator(new XoshiroDrawRandom(19)).nextDraw();
+		TicketBatch batch = new TicketBatch(2);
+		batch.add(new Ticket(1, 64, 65, 80).getLow(), new Ticket(1, 64, 65, 80).getHigh(), 4, 300, 2500);
+
+		ByteBuffer buffer = ByteBuffer.allocate(KenoCodec.HEADER_BYTES + KenoCodec.DRAW_BYTES + KenoCodec.TICKET_BYTES);
+		KenoCodec.writeHeader(buffer);
+		KenoCodec.encodeDraw(draw, buffer);
+		KenoCodec.encodeTicket(batch, 0, buffer);
+		assertEquals(0, buffer.remaining());
+
+		buffer.flip();
+		assertEquals(KenoCodec.VERSION, KenoCodec.readHeader(buffer));
+		Draw decoded = KenoCodec.decodeDraw(buffer);
+		assertEquals(draw.getLow(), decoded.getLow());
+		assertEquals(draw.getHigh(), decoded.getHigh());
+		assertEquals(draw.toList(), decoded.toList());
+		int index = KenoCodec.decodeTicket(buffer, batch);
+		assertEquals(1, index);
+		assertEquals(batch.getLow(0), batch.getLow(1));
+		assertEquals(batch.getHigh(0), batch.getHigh(1));
+		assertEquals(4, batch.getSpots(1));
+		assertEquals(300, batch.getDraws(1));
+		assertEquals(2500, batch.getWager(1));
+
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.readHeader(ByteBuffer.allocate(5)));
+		ByteBuffer ticket = ByteBuffer.allocate(KenoCodec.TICKET_BYTES);
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.encodeTicket(0, 0, 256, 1, 100, ticket));
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.encodeTicket(0, 0, 0, 65536, 100, ticket));
+		assertEquals(0, ticket.position());
+
+		// a draw whose words no longer match its numbers is refused by both decoders
+		ByteBuffer corrupt = ByteBuffer.allocate(KenoCodec.DRAW_BYTES);
+		KenoCodec.encodeDraw(draw, corrupt, 0);
+		corrupt.putLong(0, draw.getLow() ^ 1);
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.decodeDraw(corrupt, 0));
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.decodeDraw(corrupt, new long[2], 0, null, 0));
+		KenoCodec.encodeDraw(draw, corrupt, 0);
+		corrupt.put(16, (byte) 81);
+		assertThrows(IllegalArgumentException.class, () -> KenoCodec.decodeDraw(corrupt, 0));
+	}
+
+	@Test
+	@DisplayName("Test TicketLog.Reader reads a log larger than its block buffer")
+	public void testTicketLogReader(@TempDir Path directory) throws IOException {
+		Path path = directory.resolve("tickets.log");
+		TicketBatch batch = new TicketBatch(50);
+		try (TicketLog log = new TicketLog(path)) {
+			for (int drawId = 1; drawId <= 100; drawId++) {
+				batch.clear();
+				for (int i = 0; i < 50; i++) {
+					batch.add(new Ticket((drawId + i) % 80 + 1), drawId);
+				}
+				log.append(drawId, batch);
+			}
+		}
+		// 5,000 records span several 64 KB blocks, so records are split across block boundaries
+		try (TicketLog.Reader reader = new TicketLog.Reader(path, new TicketValidator(Paytable.STANDARD, 1, 0, 1000))) {
+			for (int drawId = 1; drawId <= 100; drawId++) {
+				assertEquals(50, reader.read(drawId, batch));
+				assertEquals(drawId, batch.getWager(49));
+				assertEquals(new Ticket((drawId + 49) % 80 + 1).getLow(), batch.getLow(49));
+			}
+			assertEquals(0, reader.read(101, batch));
+			assertEquals(0, reader.getSkipped());
+		}
+	}
+
+	@Test
+	@DisplayName("Test ReplayEngine re-settles a stored day and diffs the totals")
+	public void testReplayEngine(@TempDir Path directory) throws IOException {
+		Path journalDirectory = directory.resolve("journal");
+		Path ticketLogPath = directory.resolve("tickets.log");
+		Path totalsPath = directory.resolve("totals.log");
+		TicketSettler settler = new TicketSettler(Paytable.STANDARD);
+		DrawGenerator generator = new DrawGenerator(new XoshiroDrawRandom(23));
+		SettlementResult result = new SettlementResult(0);
+		long[] drawIds = new long[600];
+		long[] totals = new long[drawIds.length];
+
+		try (DrawJournal journal = new DrawJournal(journalDirectory, 128); TicketLog ticketLog = new TicketLog(ticketLogPath)) {
+			TicketBatch batch = new TicketBatch(4);
+			for (int i = 0; i < drawIds.length; i++) {
+				drawIds[i] = 1000 + i;
+				Draw draw = generator.nextDraw();
+				journal.append(drawIds[i], i, draw, DrawRandomSource.PROVENANCE_XOSHIRO);
+				batch.clear();
+				batch.add(new Ticket(1, 2, 3, 4), 100);
+				batch.add(new Ticket(i % 80 + 1), 200);
+				ticketLog.append(drawIds[i], batch);
+				settler.settle(draw, batch, result);
+				totals[i] = result.getTotalPayout();
+			}
+			// A draw with no tickets and no recorded total, and one whose only ticket gets corrupted
+			journal.append(1600, 0, generator.nextDraw(), DrawRandomSource.PROVENANCE_XOSHIRO);
+			journal.append(1601, 0, generator.nextDraw(), DrawRandomSource.PROVENANCE_XOSHIRO);
+			batch.clear();
+			batch.add(new Ticket(5, 6), 100);
+			ticketLog.append(1601, batch);
+			assertThrows(IllegalArgumentException.class, () -> ticketLog.append(1600, batch));
+			// Tickets for draws the journal never recorded, after its last draw
+			batch.clear();
+			batch.add(new Ticket(7, 8), 100);
+			batch.add(new Ticket(9, 10), 100);
+			ticketLog.append(1700, batch);
+		}
+		try (FileChannel channel = FileChannel.open(ticketLogPath, StandardOpenOption.WRITE)) {
+			// the spots byte of draw 1601's ticket, before the two trailing records
+			channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), channel.size() - 2L * (8 + KenoCodec.TICKET_BYTES) - KenoCodec.TICKET_BYTES + 16);
+		}
+		// Pretend draw 1005 was originally paid out wrongly
+		totals[5] += 100;
+		ReplayEngine.writeTotals(totalsPath, drawIds, totals);
+
+		ReplayEngine engine = new ReplayEngine(Paytable.STANDARD, 2);
+		ReplayReport report = engine.replay(journalDirectory, ticketLogPath, totalsPath);
+		engine.shutdown();
+
+		assertEquals(602, report.getDrawCount());
+		assertEquals(3, report.getSkippedTickets());
+		assertEquals(0, report.getPayout(601));
+		assertEquals(1, report.getMismatches().length);
+		assertEquals(1005, report.getDrawId(report.getMismatches()[0]));
+		assertEquals(totals[5] - 100, report.getPayout(5));
+	}
+
+	@Test
+	@DisplayName("Test SeededDraws regenerates any draw in any order")
+	public void testSeededDraws() {
+		SeededDraws forward = new SeededDraws(2023);
+		Draw[] draws = new Draw[100];
+		for (int id = 0; id < draws.length; id++) {
+			draws[id] = forward.draw(id);
+		}
+
+		SeededDraws backward = new SeededDraws(2023);
+		for (int id = draws.length - 1; id >= 0; id--) {
+			assertEquals(draws[id].toList(), backward.draw(id).toList());
+		}
+		assertTrue(draws[0].getLow() != draws[1].getLow() || draws[0].getHigh() != draws[1].getHigh());
+		assertTrue(!new SeededDraws(2024).draw(0).toList().equals(draws[0].toList()));
+
+		// A seeded engine's draws can be regenerated from their ids
+		KenoEngine engine = KenoEngine.seeded(Paytable.STANDARD, 2023, null);
+		DrawResult result = engine.play(new Ticket(1, 2, 3, 4), 100);
+		assertEquals(new SeededDraws(2023).draw(result.getDrawId()).toList(), result.getDraw().toList());
+
+		// Split counter streams differ from the parent and from each other, and stay reproducible
+		CounterDrawRandom parent = new CounterDrawRandom(2023);
+		CounterDrawRandom child = (CounterDrawRandom) parent.split();
+		CounterDrawRandom sibling = (CounterDrawRandom) parent.split();
+		assertTrue(child.getMasterSeed() != parent.getMasterSeed() && sibling.getMasterSeed() != child.getMasterSeed());
+		long[] streams = {parent.nextLong(), child.nextLong(), sibling.nextLong()};
+		assertTrue(streams[0] != streams[1] && streams[1] != streams[2] && streams[0] != streams[2]);
+		assertEquals(((CounterDrawRandom) new CounterDrawRandom(2023).split()).getMasterSeed(), child.getMasterSeed());
+		assertTrue(!new SeededDraws(child.getMasterSeed()).draw(1).toList().equals(new SeededDraws(2023).draw(1).toList()));
+	}
+
+	@Test
+	@DisplayName("Test TicketValidator flags each kind of bad ticket")
+	public void testTicketValidator() {
+		TicketValidator validator = new TicketValidator(Paytable.STANDARD, 4, 100, 10000);
+		Ticket four = new Ticket(1, 2, 3, 80);
+		TicketBatch batch = new TicketBatch(8);
+		batch.add(four.getLow(), four.getHigh(), 4, 1, 100);
+		batch.add(new Ticket(1, 2).getLow(), 0, 2, 1, 100);
+		batch.add(four.getLow(), four.getHigh(), 4, 5, 100);
+		batch.add(four.getLow(), four.getHigh(), 4, 1, 99);
+		batch.add(four.getLow(), four.getHigh(), 4, 4, 10000);
+
+		byte[] errors = new byte[batch.size()];
+		assertEquals(3, validator.validate(batch, errors));
+		assertArrayEquals(new byte[]{TicketValidator.OK, TicketValidator.NO_PAYTABLE_ROW, TicketValidator.BAD_DRAWS,
+				TicketValidator.BAD_WAGER, TicketValidator.OK}, errors);
+
+		// malformed tickets never get into a batch, but raw input can still be screened
+		assertEquals(TicketValidator.BAD_NUMBER, validator.validate(four.getLow(), four.getHigh() | (1L << 20), 5, 1, 100));
+		assertEquals(TicketValidator.SPOT_MISMATCH, validator.validate(four.getLow(), four.getHigh(), 5, 1, 100));
+		assertThrows(IllegalArgumentException.class, () -> batch.add(four.getLow(), four.getHigh(), 5, 1, 100));
+		assertThrows(IllegalArgumentException.class, () -> batch.add(four.getLow(), four.getHigh() | (1L << 20), 5, 1, 100));
+		assertThrows(IllegalArgumentException.class, () -> batch.add(four.getLow(), four.getHigh(), 4, 0, 100));
+		assertThrows(IllegalArgumentException.class, () -> batch.add(four.getLow(), four.getHigh(), 4, 1, -1));
+	}
+
+	@Test
+	@DisplayName("Test settlement histogram matches per-ticket results, serial and parallel")
+	public void testSettlementHistogram() {
+		DrawGenerator generator = new DrawGenerator(new SplittableDrawRandom(18));
+		Draw draw = generator.nextDraw();
+		TicketBatch batch = new TicketBatch(40000);
+		for (int i = 0; i < 40000; i++) {
+			Draw picks = generator.nextDraw();
+			int spots = i % 2 == 0 ? 8 : 4;
+			int[] numbers = new int[spots];
+			for (int j = 0; j < spots; j++) {
+				numbers[j] = picks.numberAt(j);
+			}
+			batch.add(new Ticket(numbers), 100);
+		}
+
+		TicketSettler settler = new TicketSettler(Paytable.STANDARD);
+		SettlementResult result = new SettlementResult(0);
+		SettlementHistogram serial = new SettlementHistogram();
+		settler.settle(draw, batch, result, serial);
+
+		long[] expected = new long[9];
+		for (int i = 0; i < batch.size(); i += 2) {
+			expected[result.getMatches(i)]++;
+		}
+		for (int matches = 0; matches <= 8; matches++) {
+			assertEquals(expected[matches], serial.getCount(8, matches));
+			assertEquals(expected[matches] * Paytable.STANDARD.payout(8, matches) * 100, serial.getPayout(8, matches));
+		}
+		assertEquals(40000, serial.getTickets());
+		assertEquals(result.getTotalPayout(), serial.getTotalPayout());
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		SettlementHistogram parallel = new SettlementHistogram();
+		SettlementResult parallelResult = new SettlementResult(0);
+		settler.settle(pool, draw, batch, parallelResult, parallel);
+		pool.shutdown();
+		assertEquals(serial.toString(), parallel.toString());
+		assertEquals(serial.getWinners(Paytable.STANDARD), parallel.getWinners(Paytable.STANDARD));
+		long winners = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			winners += Paytable.STANDARD.payout(batch.getSpots(i), result.getMatches(i)) != 0 ? 1 : 0;
+		}
+		assertEquals(winners, serial.getWinners(Paytable.STANDARD));
+
+		// Free tickets that hit a paying tier are still winners
+		TicketBatch free = new TicketBatch(1);
+		free.add(new Ticket(1, 2, 3, 4, 5, 6, 7, 8), 0);
+		SettlementHistogram freeHistogram = new SettlementHistogram();
+		settler.settle(new Draw(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20}), free, new SettlementResult(1), freeHistogram);
+		assertEquals(0, freeHistogram.getTotalPayout());
+		assertEquals(1, freeHistogram.getWinners(Paytable.STANDARD));
+		assertEquals(result.getTotalPayout(), parallelResult.getTotalPayout());
+		assertEquals(result.getMatches(39999), parallelResult.getMatches(39999));
+	}
+
+	@Test
+	@DisplayName("Test way tickets settle the same as their expanded sub-tickets")
+	public void testWayTicket() {
+		Ticket[] groups = {new Ticket(1, 2), new Ticket(10, 11), new Ticket(20, 21), new Ticket(30, 31), new Ticket(79, 80)};
+		WayTicket ways = new WayTicket(groups, 3, new Ticket(40, 41));
+		assertEquals(10, ways.getWays());
+
+		DrawGenerator generator = new DrawGenerator(new SplittableDrawRandom(19));
+		for (int round = 0; round < 50; round++) {
+			Draw draw = generator.nextDraw();
+			long expected = 0;
+			List<Long> seen = new ArrayList<>();
+			for (long rank = 0; rank < ways.getWays(); rank++) {
+				Ticket way = ways.way(rank);
+				assertEquals(8, way.getSpots());
+				assertTrue(way.contains(40) && way.contains(41));
+				assertFalse(seen.contains(way.getLow() ^ way.getHigh() * 31));
+				seen.add(way.getLow() ^ way.getHigh() * 31);
+				expected += Paytable.STANDARD.payout(8, draw.matches(way)) * 100;
+			}
+			SettlementHistogram histogram = new SettlementHistogram();
+			assertEquals(expected, ways.settle(draw, Paytable.STANDARD, 100, histogram));
+			assertEquals(10, histogram.getTickets());
+			assertEquals(expected, histogram.getTotalPayout());
+		}
+
+		int[] chosen = new int[3];
+		ways.unrank(0, chosen);
+		assertArrayEquals(new int[]{0, 1, 2}, chosen);
+		ways.unrank(9, chosen);
+		assertArrayEquals(new int[]{2, 3, 4}, chosen);
+		assertThrows(IllegalArgumentException.class, () -> new WayTicket(groups, 4, new Ticket(40, 41, 42)));
+		assertThrows(IllegalArgumentException.class, () -> new WayTicket(new Ticket[]{new Ticket(1, 2), new Ticket(2, 3)}, 1, null));
+	}
+
+	@Test
+	@DisplayName("Test multi-draw tickets settle only within their window and complete once")
+	public void testMultiDrawBook() {
+		MultiDrawBook book = new MultiDrawBook(Paytable.STANDARD, 0);
+		Ticket[] tickets = new Ticket[60];
+		long[] ids = new long[60];
+		long[] starts = new long[60];
+		int[] windows = new int[60];
+		DrawGenerator generator = new DrawGenerator(new SplittableDrawRandom(20));
+		for (int i = 0; i < tickets.length; i++) {
+			Draw picks = generator.nextDraw();
+			tickets[i] = new Ticket(picks.numberAt(0), picks.numberAt(1), picks.numberAt(2), picks.numberAt(3));
+			starts[i] = 1 + i % 7;
+			windows[i] = 1 + (i * 13) % 40;
+			ids[i] = book.add(tickets[i], starts[i], windows[i], 100);
+		}
+		assertEquals(60, book.getPendingCount());
+
+		long[] expected = new long[60];
+		List<Long> completed = new ArrayList<>();
+		List<Long> completedPayouts = new ArrayList<>();
+		for (long drawId = 1; drawId <= 50; drawId++) {
+			Draw draw = generator.nextDraw();
+			long drawTotal = 0;
+			for (int i = 0; i < tickets.length; i++) {
+				if (drawId >= starts[i] && drawId < starts[i] + windows[i]) {
+					long payout = Paytable.STANDARD.payout(4, draw.matches(tickets[i])) * 100;
+					expected[i] += payout;
+					drawTotal += payout;
+				}
+			}
+			assertEquals(drawTotal, book.settle(drawId, draw, null, (id, total) -> {
+				completed.add(id);
+				completedPayouts.add(total);
+			}));
+		}
+
+		assertEquals(60, completed.size());
+		assertEquals(0, book.getActiveCount());
+		assertEquals(0, book.getPendingCount());
+		for (int i = 0; i < tickets.length; i++) {
+			assertEquals(expected[i], completedPayouts.get(completed.indexOf(ids[i])));
+		}
+		assertThrows(IllegalStateException.class, () -> book.settle(52, generator.nextDraw(), null, (id, total) -> { }));
+		assertThrows(IllegalArgumentException.class, () -> book.add(tickets[0], 50, 5, 100));
+	}
+}